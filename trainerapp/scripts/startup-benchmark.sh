@@ -0,0 +1,130 @@
+#!/usr/bin/env bash
+# Startup benchmark: time to first request and resident memory of trainerapp per start mode
+#
+#   jar      java -jar on the fat jar, as deployed today
+#   aot      the fat jar with the context prepared at build time (-Dspring.aot.enabled=true)
+#   cds      extracted jar with a class-data-sharing archive recorded by a training run
+#            (JDK 25+: the AOT cache of -XX:AOTCacheOutput, otherwise an AppCDS archive)
+#   aot-cds  both, the fast-start mode
+#   native   target/trainerapp, only when built beforehand with mvn -Pnative native:compile
+#
+# Usage (from trainerapp/): scripts/startup-benchmark.sh [runs per mode, default 5]
+#   APP_ARGS         arguments for every instance, e.g. "--spring.datasource.url=jdbc:mysql://db:3306/trainerdb";
+#                    instances start one at a time and must all reach that database
+#   EXTRA_CLASSPATH  jars added to the JVM modes, e.g. a JDBC driver that is not packaged
+#   FIRST_REQUEST    path timed as the first request (default /subject?limit=1, which reads the database)
+#   MODES            subset of the modes above, space separated
+#   SKIP_BUILD=1     reuse target/ from an earlier mvn -Pfaststart package
+#
+# Time to first request runs from process launch to the first 200 answer; RSS is taken right after it.
+# The training runs start the application once per CDS mode and stop after the context refresh.
+set -euo pipefail
+
+if (( BASH_VERSINFO[0] < 5 )); then
+    echo "bash 5 or newer is required (for EPOCHREALTIME)" >&2
+    exit 1
+fi
+
+cd "$(dirname "$0")/.."
+runs=${1:-5}
+port=${PORT:-8081}
+first_request=${FIRST_REQUEST:-/subject?limit=1}
+modes=${MODES:-jar aot cds aot-cds native}
+java=${JAVA_HOME:+$JAVA_HOME/bin/}java
+work=target/startup-benchmark
+read -r -a app_args <<< "${APP_ARGS:-}"
+app_args+=("--server.port=$port")
+
+if [[ -z ${SKIP_BUILD:-} ]]; then
+    ./mvnw -B -q -Pfaststart -DskipTests package
+fi
+jar=$(ls target/trainerapp-*.jar | grep -v plain | head -n 1)
+java_version=$("$java" -version 2>&1 | awk -F'"' '/version/ {split($2, v, "."); print v[1]; exit}')
+
+rm -rf "$work"
+mkdir -p "$work"
+"$java" -Djarmode=tools -jar "$jar" extract --destination "$work/application" > /dev/null
+extracted="$work/application/$(basename "$jar")"
+
+# java options and classpath of a JVM mode; the fat jar goes through Boot's launcher, the extracted jar
+# is started directly so that its classes can be archived
+jvm_command() {
+    local mode=$1
+    local options=()
+    [[ $mode == aot* ]] && options+=(-Dspring.aot.enabled=true)
+    if [[ $mode == jar || $mode == aot ]]; then
+        echo "${options[*]} -cp $jar${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH} org.springframework.boot.loader.launch.JarLauncher"
+    else
+        echo "${options[*]} -cp $extracted${EXTRA_CLASSPATH:+:$EXTRA_CLASSPATH} com.example.trainerapp.TrainerappApplication"
+    fi
+}
+
+# archive_options <mode> [record]: the options that record the mode's archive, or that use it
+archive_options() {
+    local archive="$work/$1"
+    if (( java_version >= 25 )); then
+        if [[ ${2:-} == record ]]; then echo "-XX:AOTCacheOutput=$archive.aot"; else echo "-XX:AOTCache=$archive.aot"; fi
+    else
+        if [[ ${2:-} == record ]]; then echo "-XX:ArchiveClassesAtExit=$archive.jsa"; else echo "-XX:SharedArchiveFile=$archive.jsa"; fi
+    fi
+}
+
+train() {
+    local mode=$1
+    echo "training run for $mode" >&2
+    # shellcheck disable=SC2046
+    "$java" $(archive_options "$mode" record) -Dspring.context.exit=onRefresh $(jvm_command "$mode") \
+        "${app_args[@]}" > "$work/$mode-training.log" 2>&1
+}
+
+launch() {
+    local mode=$1 log=$2
+    # shellcheck disable=SC2046
+    case $mode in
+        jar|aot) "$java" $(jvm_command "$mode") "${app_args[@]}" > "$log" 2>&1 & ;;
+        cds|aot-cds) "$java" $(archive_options "$mode") $(jvm_command "$mode") "${app_args[@]}" > "$log" 2>&1 & ;;
+        native) target/trainerapp "${app_args[@]}" > "$log" 2>&1 & ;;
+    esac
+}
+
+# one start: prints "<ms to first request> <rss kB>"
+measure() {
+    local mode=$1 log=$2 start pid elapsed
+    start=$EPOCHREALTIME
+    launch "$mode" "$log"
+    pid=$!
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$port$first_request" || true) == 200 ]]; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "$mode exited before answering, see $log" >&2
+            return 1
+        fi
+        sleep 0.01
+    done
+    elapsed=$(( (${EPOCHREALTIME/./} - ${start/./}) / 1000 ))
+    echo "$elapsed $(ps -o rss= -p "$pid" | tr -d ' ')"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+median() {
+    sort -n | awk '{ values[NR] = $1 } END { print (NR % 2) ? values[(NR + 1) / 2] : int((values[NR / 2] + values[NR / 2 + 1]) / 2) }'
+}
+
+printf '%-8s %12s %10s   %s\n' mode first-req-ms rss-mb "runs (ms/MB)"
+for mode in $modes; do
+    if [[ $mode == native && ! -x target/trainerapp ]]; then
+        printf '%-8s %12s %10s   %s\n' native - - "not built (mvn -Pnative native:compile)"
+        continue
+    fi
+    [[ $mode == *cds ]] && train "$mode"
+    times=() rss=() details=""
+    for (( i = 1; i <= runs; i++ )); do
+        result=$(measure "$mode" "$work/$mode-$i.log")
+        read -r ms kb <<< "$result"
+        times+=("$ms")
+        rss+=("$(( kb / 1024 ))")
+        details+="$ms/$(( kb / 1024 )) "
+    done
+    printf '%-8s %12s %10s   %s\n' "$mode" "$(printf '%s\n' "${times[@]}" | median)" \
+        "$(printf '%s\n' "${rss[@]}" | median)" "$details"
+done
@@ -0,0 +1,78 @@
+package com.example.trainerapp.benchmark;
+
+import com.example.trainerapp.service.AssignmentIndex;
+
+import java.util.SplittableRandom;
+
+/**
+ * Heap footprint and lookup latency of {@link AssignmentIndex}.
+ *
+ * Fills the index with synthetic assignments (no database needed), then reports the measured
+ * heap delta and the index's own estimate per million assignments, followed by the average cost
+ * of isAssigned and the two degree lookups:
+ *
+ *   mvn -Pbenchmark test-compile exec:java \
+ *       -Dexec.mainClass=com.example.trainerapp.benchmark.AssignmentIndexFootprint \
+ *       -Dexec.args="1000000 50000 2000"
+ *
+ * Arguments: assignments, trainers, subjects.
+ */
+public class AssignmentIndexFootprint {
+
+    public static void main(String[] args) {
+        int assignments = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int trainers = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int subjects = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        long before = usedHeap();
+        AssignmentIndex index = new AssignmentIndex(null);
+        SplittableRandom random = new SplittableRandom(42);
+        while (index.size() < assignments) {
+            index.add(1 + random.nextInt(trainers), 1 + random.nextInt(subjects));
+        }
+        index.compact();
+        long after = usedHeap();
+
+        double millions = assignments / 1_000_000.0;
+        System.out.printf("assignments        %,d (%,d trainers x %,d subjects)%n", assignments, trainers, subjects);
+        System.out.printf("measured heap      %,.1f MB  (%,.1f MB per million)%n", mb(after - before), mb(after - before) / millions);
+        System.out.printf("estimated by index %,.1f MB  (%,.1f MB per million)%n", mb(index.estimatedBytes()), mb(index.estimatedBytes()) / millions);
+
+        int lookups = 10_000_000;
+        long hits = 0;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                if (index.isAssigned(1 + random.nextInt(trainers), 1 + random.nextInt(subjects))) {
+                    hits++;
+                }
+            }
+            long isAssignedNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                hits += index.trainerDegree(1 + random.nextInt(trainers)) + index.subjectDegree(1 + random.nextInt(subjects));
+            }
+            long degreeNanos = System.nanoTime() - start;
+
+            System.out.printf("round %d: isAssigned %.0f ns/op, trainer+subject degree %.0f ns/op%n",
+                    round + 1, (double) isAssignedNanos / lookups, (double) degreeNanos / lookups);
+        }
+        // keep the JIT from discarding the lookups
+        if (hits == 42) {
+            System.out.println();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static double mb(long bytes) {
+        return bytes / (1024.0 * 1024.0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.trainerapp.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput of POST /trainer-subject/assign/bulk against calling /assign once per pair.
+ *
+ * Runs against a running instance (default http://localhost:8081). It creates its own trainers
+ * and subjects, then assigns two disjoint sets of pairs of the same size, one per strategy:
+ *
+ *   mvn -Pbenchmark test-compile exec:java \
+ *       -Dexec.mainClass=com.example.trainerapp.benchmark.BulkAssignBenchmark \
+ *       -Dexec.args="http://localhost:8081 2000 1000"
+ *
+ * Arguments: base url, pairs per strategy, pairs per bulk request.
+ */
+public class BulkAssignBenchmark {
+
+    private static final Pattern ID = Pattern.compile("\"(?:empId|subjectId)\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final String baseUrl;
+
+    BulkAssignBenchmark(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        int pairs = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int bulkSize = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        new BulkAssignBenchmark(baseUrl).run(pairs, bulkSize);
+    }
+
+    void run(int pairs, int bulkSize) throws Exception {
+        // every trainer is paired with up to 50 subjects; separate trainer groups keep the two strategies disjoint
+        int subjects = Math.max(1, Math.min(50, pairs));
+        int trainersPerSide = (pairs + subjects - 1) / subjects;
+        String run = Long.toString(System.currentTimeMillis(), 36);
+
+        System.out.printf("seeding %d subjects and %d trainers...%n", subjects, 2 * trainersPerSide);
+        List<Long> subjectIds = new ArrayList<>();
+        for (int i = 0; i < subjects; i++) {
+            subjectIds.add(create("/subject", "{\"subjectName\":\"bench-" + run + "-" + i + "\",\"description\":\"bench\"}"));
+        }
+        List<Long> loopTrainers = new ArrayList<>();
+        List<Long> bulkTrainers = new ArrayList<>();
+        for (int i = 0; i < trainersPerSide; i++) {
+            loopTrainers.add(create("/trainer", trainerJson(run, "l" + i)));
+            bulkTrainers.add(create("/trainer", trainerJson(run, "b" + i)));
+        }
+
+        List<long[]> loopPairs = pairs(loopTrainers, subjectIds, pairs);
+        List<long[]> bulkPairs = pairs(bulkTrainers, subjectIds, pairs);
+
+        long start = System.nanoTime();
+        for (long[] pair : loopPairs) {
+            post("/trainer-subject/assign", pairJson(pair));
+        }
+        long loopNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int from = 0; from < bulkPairs.size(); from += bulkSize) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + bulkSize, bulkPairs.size()); i++) {
+                if (i > from) {
+                    body.append(',');
+                }
+                body.append(pairJson(bulkPairs.get(i)));
+            }
+            post("/trainer-subject/assign/bulk", body.append(']').toString());
+        }
+        long bulkNanos = System.nanoTime() - start;
+
+        report("/assign loop", loopPairs.size(), loopNanos);
+        report("/assign/bulk", bulkPairs.size(), bulkNanos);
+        System.out.printf("speedup: %.1fx%n", (double) loopNanos / bulkNanos);
+    }
+
+    private static List<long[]> pairs(List<Long> trainers, List<Long> subjects, int count) {
+        List<long[]> pairs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            pairs.add(new long[]{trainers.get(i / subjects.size()), subjects.get(i % subjects.size())});
+        }
+        return pairs;
+    }
+
+    private static void report(String label, int pairs, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("%-14s %7d pairs in %8.2f s  = %10.0f pairs/s%n", label, pairs, seconds, pairs / seconds);
+    }
+
+    private static String trainerJson(String run, String suffix) {
+        return "{\"name\":\"bench " + suffix + "\",\"email\":\"bench-" + run + "-" + suffix + "@example.com\",\"experience\":1}";
+    }
+
+    private static String pairJson(long[] pair) {
+        return "{\"empId\":" + pair[0] + ",\"subjectId\":" + pair[1] + "}";
+    }
+
+    private long create(String path, String json) throws Exception {
+        Matcher m = ID.matcher(post(path, json));
+        if (!m.find()) {
+            throw new IllegalStateException("no id in response from " + path);
+        }
+        return Long.parseLong(m.group(1));
+    }
+
+    private String post(String path, String json) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
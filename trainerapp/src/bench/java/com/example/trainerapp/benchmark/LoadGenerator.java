@@ -0,0 +1,410 @@
+package com.example.trainerapp.benchmark;
+
+import com.example.trainerapp.TrainerappApplication;
+import com.example.trainerapp.benchmark.jmh.BenchmarkData;
+import com.example.trainerapp.service.AssignmentIndex;
+import com.example.trainerapp.service.SearchIndex;
+import com.example.trainerapp.service.TrainerTopicMatrix;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load against the REST API with a weighted mix of operations, stepped
+ * through increasing concurrency to find where latency starts to degrade.
+ *
+ * Each step runs the given number of workers for a fixed time; every worker sends its next
+ * request as soon as the previous one answers. Latencies go into HdrHistogram per operation,
+ * and each step reports throughput and percentiles. The summary shows the highest throughput
+ * whose p99 stayed within --slo-ms.
+ *
+ *   mvn -Pbenchmark test-compile exec:java \
+ *       -Dexec.mainClass=com.example.trainerapp.benchmark.LoadGenerator \
+ *       -Dexec.args="--embedded 100000 --mix subject=80,check=15,assign=5 --concurrency 1,4,16,64"
+ *
+ * Options (all optional):
+ *   --url URL             target a running instance (default http://localhost:8081)
+ *   --embedded N          start the application on an in-memory H2 database seeded with N assignments
+ *   --mix op=w,...        weights per operation (default subject=80,check=15,assign=5)
+ *   --concurrency a,b,... workers per step (default 1,2,4,8,16,32,64)
+ *   --duration S          seconds measured per step (default 20)
+ *   --warmup S            seconds of unrecorded load before the first step (default 10)
+ *   --slo-ms MS           p99 latency budget for the summary (default 50)
+ *   --out DIR             also write one .hgrm percentile file per step and operation
+ *
+ * Operations: subject, subject-topics, trainer, trainer-subjects, assignments-by-subject,
+ * check, count, assign. Against a running instance the ids are taken from the first page of
+ * /trainer and /subject. A 4xx answer to assign (pair already assigned) is expected and counted
+ * apart from failures.
+ */
+public class LoadGenerator {
+
+    private static final Pattern TRAINER_ID = Pattern.compile("\"empId\"\\s*:\\s*(\\d+)");
+    private static final Pattern SUBJECT_ID = Pattern.compile("\"subjectId\"\\s*:\\s*(\\d+)");
+    private static final long MAX_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    enum Op {
+        SUBJECT("subject"),
+        SUBJECT_TOPICS("subject-topics"),
+        TRAINER("trainer"),
+        TRAINER_SUBJECTS("trainer-subjects"),
+        ASSIGNMENTS_BY_SUBJECT("assignments-by-subject"),
+        CHECK("check"),
+        COUNT("count"),
+        ASSIGN("assign");
+
+        final String label;
+
+        Op(String label) {
+            this.label = label;
+        }
+
+        static Op of(String label) {
+            for (Op op : values()) {
+                if (op.label.equals(label)) {
+                    return op;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation '" + label + "'");
+        }
+    }
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final long[] trainerIds;
+    private final long[] subjectIds;
+    private final Op[] ops;
+    private final int[] cumulativeWeights;
+
+    LoadGenerator(String baseUrl, long[] trainerIds, long[] subjectIds, Map<Op, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.trainerIds = trainerIds;
+        this.subjectIds = subjectIds;
+        this.ops = mix.keySet().toArray(new Op[0]);
+        this.cumulativeWeights = new int[ops.length];
+        int total = 0;
+        for (int i = 0; i < ops.length; i++) {
+            total += mix.get(ops[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        Map<Op, Integer> mix = parseMix(options.getOrDefault("mix", "subject=80,check=15,assign=5"));
+        int[] steps = parseInts(options.getOrDefault("concurrency", "1,2,4,8,16,32,64"));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "20")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        double sloMillis = Double.parseDouble(options.getOrDefault("slo-ms", "50"));
+        Path out = options.containsKey("out") ? Path.of(options.get("out")) : null;
+
+        ConfigurableApplicationContext context = null;
+        LoadGenerator generator;
+        if (options.containsKey("embedded")) {
+            context = startEmbedded(Integer.parseInt(options.get("embedded")));
+            BenchmarkData.Shape shape = BenchmarkData.Shape.forAssignments(Integer.parseInt(options.get("embedded")));
+            String url = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            generator = new LoadGenerator(url, range(shape.trainers()), range(shape.subjects()), mix);
+        } else {
+            String url = options.getOrDefault("url", "http://localhost:8081");
+            generator = new LoadGenerator(url, discoverIds(url, "/trainer?limit=500", TRAINER_ID),
+                    discoverIds(url, "/subject?limit=500", SUBJECT_ID), mix);
+        }
+
+        try {
+            System.out.printf("Target %s, %,d trainers, %,d subjects, mix %s%n",
+                    generator.baseUrl, generator.trainerIds.length, generator.subjectIds.length, mix);
+            if (!warmup.isZero()) {
+                System.out.printf("Warming up for %d s at concurrency %d%n", warmup.toSeconds(), steps[steps.length - 1]);
+                generator.runStep(steps[steps.length - 1], warmup);
+            }
+
+            List<StepResult> results = new ArrayList<>();
+            for (int concurrency : steps) {
+                StepResult result = generator.runStep(concurrency, duration);
+                result.print();
+                if (out != null) {
+                    result.write(out);
+                }
+                results.add(result);
+            }
+            printSummary(results, sloMillis);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    StepResult runStep(int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<Recording>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                long seed = 31L * concurrency + i;
+                workers.add(executor.submit(() -> work(new SplittableRandom(seed), deadline)));
+            }
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        Recording total = new Recording();
+        for (Future<Recording> worker : workers) {
+            total.add(worker.get());
+        }
+        return new StepResult(concurrency, elapsedNanos, total);
+    }
+
+    private Recording work(SplittableRandom random, long deadline) throws InterruptedException {
+        Recording recording = new Recording();
+        while (System.nanoTime() < deadline) {
+            Op op = pick(random);
+            HttpRequest request = request(op, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            }
+            recording.record(op, (System.nanoTime() - start) / 1000, status);
+        }
+        return recording;
+    }
+
+    private Op pick(SplittableRandom random) {
+        int r = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) {
+                return ops[i];
+            }
+        }
+        return ops[ops.length - 1];
+    }
+
+    private HttpRequest request(Op op, SplittableRandom random) {
+        long empId = trainerIds[random.nextInt(trainerIds.length)];
+        long subjectId = subjectIds[random.nextInt(subjectIds.length)];
+        String path = switch (op) {
+            case SUBJECT -> "/subject/" + subjectId;
+            case SUBJECT_TOPICS -> "/subject/" + subjectId + "/topics";
+            case TRAINER -> "/trainer/" + empId;
+            case TRAINER_SUBJECTS -> "/trainer/" + empId + "/subjects";
+            case ASSIGNMENTS_BY_SUBJECT -> "/trainer-subject/subject/" + subjectId;
+            case CHECK -> "/trainer-subject/check/" + empId + "/" + subjectId;
+            case COUNT -> "/trainer-subject/count/subject/" + subjectId;
+            case ASSIGN -> "/trainer-subject/assign";
+        };
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (op == Op.ASSIGN) {
+            return builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"empId\":" + empId + ",\"subjectId\":" + subjectId + "}"))
+                    .build();
+        }
+        return builder.GET().build();
+    }
+
+    private static ConfigurableApplicationContext startEmbedded(int assignments) {
+        // command-line arguments, so they win over application.properties
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TrainerappApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+        long start = System.nanoTime();
+        BenchmarkData.Shape shape = BenchmarkData.seed(context.getBean(JdbcTemplate.class), assignments);
+        context.getBean(AssignmentIndex.class).load();
+        context.getBean(TrainerTopicMatrix.class).load();
+        context.getBean(SearchIndex.class).load();
+        System.out.printf("Seeded %,d assignments (%,d trainers, %,d subjects) in %,d ms%n",
+                shape.assignments(), shape.trainers(), shape.subjects(), (System.nanoTime() - start) / 1_000_000);
+        return context;
+    }
+
+    private static long[] discoverIds(String baseUrl, String path, Pattern idPattern) throws Exception {
+        HttpResponse<String> response;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        Matcher m = idPattern.matcher(response.body());
+        while (m.find()) {
+            ids.add(Long.parseLong(m.group(1)));
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No ids found at " + path + " (HTTP " + response.statusCode() + "); seed some data first");
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void printSummary(List<StepResult> results, double sloMillis) {
+        System.out.println();
+        System.out.println("concurrency      req/s   p50 ms   p99 ms  p99.9 ms  failed");
+        StepResult best = null;
+        for (StepResult r : results) {
+            Histogram all = r.recording.all();
+            System.out.printf("%11d %10.0f %8.2f %8.2f %9.2f %7d%n", r.concurrency, r.throughput(),
+                    millis(all.getValueAtPercentile(50)), millis(all.getValueAtPercentile(99)),
+                    millis(all.getValueAtPercentile(99.9)), r.recording.failed());
+            if (millis(all.getValueAtPercentile(99)) <= sloMillis && (best == null || r.throughput() > best.throughput())) {
+                best = r;
+            }
+        }
+        if (best == null) {
+            System.out.printf("No step kept p99 within %.0f ms%n", sloMillis);
+        } else {
+            System.out.printf("Highest throughput with p99 <= %.0f ms: %.0f req/s at concurrency %d%n",
+                    sloMillis, best.throughput(), best.concurrency);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static long[] range(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+        }
+        return ids;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --option value pairs, got '" + args[i] + "'");
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static Map<Op, Integer> parseMix(String mix) {
+        Map<Op, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) {
+                weights.put(Op.of(kv[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Mix has no operation with a positive weight");
+        }
+        return weights;
+    }
+
+    private static int[] parseInts(String csv) {
+        return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Latencies (microseconds) and outcomes per operation for one worker, or merged for a step
+     */
+    static final class Recording {
+
+        private final Map<Op, Histogram> latencies = new EnumMap<>(Op.class);
+        private final Map<Op, long[]> outcomes = new EnumMap<>(Op.class); // ok, rejected (4xx), failed
+
+        void record(Op op, long micros, int status) {
+            latencies.computeIfAbsent(op, o -> new Histogram(MAX_LATENCY_MICROS, 3))
+                    .recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+            long[] counts = outcomes.computeIfAbsent(op, o -> new long[3]);
+            if (status >= 200 && status < 300) {
+                counts[0]++;
+            } else if (status >= 400 && status < 500) {
+                counts[1]++;
+            } else {
+                counts[2]++;
+            }
+        }
+
+        void add(Recording other) {
+            other.latencies.forEach((op, h) -> latencies.computeIfAbsent(op, o -> new Histogram(MAX_LATENCY_MICROS, 3)).add(h));
+            other.outcomes.forEach((op, c) -> {
+                long[] counts = outcomes.computeIfAbsent(op, o -> new long[3]);
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += c[i];
+                }
+            });
+        }
+
+        Histogram all() {
+            Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+            latencies.values().forEach(all::add);
+            return all;
+        }
+
+        long failed() {
+            return outcomes.values().stream().mapToLong(c -> c[2]).sum();
+        }
+    }
+
+    record StepResult(int concurrency, long elapsedNanos, Recording recording) {
+
+        double throughput() {
+            return recording.all().getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        void print() {
+            Histogram all = recording.all();
+            System.out.printf("%nconcurrency %d: %,.0f req/s over %.1f s, %,d requests, %,d failed%n",
+                    concurrency, throughput(), elapsedNanos / 1e9, all.getTotalCount(), recording.failed());
+            System.out.println("  operation                  share  p50 ms  p90 ms  p99 ms p99.9 ms  max ms    4xx");
+            for (Map.Entry<Op, Histogram> e : recording.latencies.entrySet()) {
+                Histogram h = e.getValue();
+                System.out.printf("  %-24s %6.1f%% %7.2f %7.2f %7.2f %8.2f %7.2f %6d%n", e.getKey().label,
+                        100.0 * h.getTotalCount() / all.getTotalCount(),
+                        millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(90)),
+                        millis(h.getValueAtPercentile(99)), millis(h.getValueAtPercentile(99.9)),
+                        millis(h.getMaxValue()), recording.outcomes.get(e.getKey())[1]);
+            }
+        }
+
+        void write(Path dir) throws IOException {
+            Files.createDirectories(dir);
+            for (Map.Entry<Op, Histogram> e : recording.latencies.entrySet()) {
+                Path file = dir.resolve("c" + concurrency + "-" + e.getKey().label + ".hgrm");
+                try (PrintStream ps = new PrintStream(Files.newOutputStream(file))) {
+                    e.getValue().outputPercentileDistribution(ps, 1000.0);
+                }
+            }
+        }
+    }
+}
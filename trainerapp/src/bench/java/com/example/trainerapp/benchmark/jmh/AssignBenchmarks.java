@@ -0,0 +1,75 @@
+package com.example.trainerapp.benchmark.jmh;
+
+import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.service.AssignmentIndex;
+import com.example.trainerapp.service.TrainerSubjectService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * assignTrainerToSubject with pairs that are never already assigned:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main AssignBenchmarks -p assignments=1000,100000"
+ *
+ * Each call assigns one of the {@link CatalogState#FRESH_TRAINERS} trainers that start without
+ * subjects; the rows are deleted again after every iteration so the table keeps the seeded size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AssignBenchmarks {
+
+    private TrainerSubjectService trainerSubjectService;
+    private AssignmentIndex assignmentIndex;
+    private JdbcTemplate jdbc;
+    private BenchmarkData.Shape shape;
+
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+        trainerSubjectService = catalog.bean(TrainerSubjectService.class);
+        assignmentIndex = catalog.bean(AssignmentIndex.class);
+        jdbc = catalog.bean(JdbcTemplate.class);
+        shape = catalog.shape;
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeNewAssignments() {
+        jdbc.update("DELETE FROM trainer_subject WHERE emp_id > ?", shape.trainers());
+        for (int i = 1; i <= CatalogState.FRESH_TRAINERS; i++) {
+            assignmentIndex.removeTrainer(shape.trainers() + i);
+        }
+        next.set(0);
+    }
+
+    @Benchmark
+    public TrainerSubject assignTrainerToSubject() throws Exception {
+        long n = next.getAndIncrement();
+        long empId = shape.trainers() + 1 + n % CatalogState.FRESH_TRAINERS;
+        long subjectId = 1 + (n / CatalogState.FRESH_TRAINERS) % shape.subjects();
+
+        TrainerSubject pair = new TrainerSubject();
+        pair.setEmpId(empId);
+        pair.setSubjectId(subjectId);
+        return trainerSubjectService.assignTrainerToSubject(pair);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.trainerapp.benchmark.jmh;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic catalog for the JMH suites, written straight through JDBC batches.
+ *
+ * For a requested number of assignments the shape scales like a real catalog: about 20
+ * subjects per trainer, 200 trainers per subject and 10 topics per subject, with every
+ * trainer and subject carrying the same number of assignments so the results do not depend
+ * on which id a benchmark happens to pick. Ids start at 1 and are dense, which the schema
+ * guarantees because the suites always seed a freshly created database.
+ */
+public final class BenchmarkData {
+
+    public static final int TOPICS_PER_SUBJECT = 10;
+
+    private static final int BATCH = 5_000;
+
+    private BenchmarkData() {
+    }
+
+    public record Shape(int trainers, int subjects, int topics, int subjectsPerTrainer) {
+
+        public long assignments() {
+            return (long) trainers * subjectsPerTrainer;
+        }
+
+        public static Shape forAssignments(int assignments) {
+            int trainers = Math.max(50, assignments / 20);
+            int subjects = Math.max(20, assignments / 200);
+            int perTrainer = Math.max(1, Math.min(subjects, assignments / trainers));
+            return new Shape(trainers, subjects, Math.max(TOPICS_PER_SUBJECT, subjects * 2), perTrainer);
+        }
+
+        /**
+         * The i-th subject (0-based) of a trainer; unique per trainer and spread evenly over subjects
+         */
+        public long subjectOf(long empId, int i) {
+            int stride = Math.max(1, subjects / subjectsPerTrainer);
+            return 1 + (empId - 1 + (long) i * stride) % subjects;
+        }
+    }
+
+    public static Shape seed(JdbcTemplate jdbc, int assignments) {
+        Shape shape = Shape.forAssignments(assignments);
+
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int t = 1; t <= shape.trainers(); t++) {
+            rows.add(new Object[]{trainerName(t), "trainer" + t + "@example.com", t % 25});
+            rows = flush(jdbc, "INSERT INTO trainer (name, email, experience) VALUES (?, ?, ?)", rows, false);
+        }
+        flush(jdbc, "INSERT INTO trainer (name, email, experience) VALUES (?, ?, ?)", rows, true);
+
+        rows = new ArrayList<>(BATCH);
+        for (int s = 1; s <= shape.subjects(); s++) {
+            rows.add(new Object[]{subjectName(s), "Description of subject " + s});
+            rows = flush(jdbc, "INSERT INTO subject (subject_name, description) VALUES (?, ?)", rows, false);
+        }
+        flush(jdbc, "INSERT INTO subject (subject_name, description) VALUES (?, ?)", rows, true);
+
+        rows = new ArrayList<>(BATCH);
+        for (int t = 1; t <= shape.topics(); t++) {
+            rows.add(new Object[]{"Topic " + t, "Description of topic " + t});
+            rows = flush(jdbc, "INSERT INTO topic (topic_name, description) VALUES (?, ?)", rows, false);
+        }
+        flush(jdbc, "INSERT INTO topic (topic_name, description) VALUES (?, ?)", rows, true);
+
+        rows = new ArrayList<>(BATCH);
+        for (int s = 1; s <= shape.subjects(); s++) {
+            for (int i = 0; i < TOPICS_PER_SUBJECT; i++) {
+                rows.add(new Object[]{s, 1 + ((long) s * 7 + i) % shape.topics()});
+                rows = flush(jdbc, "INSERT INTO subject_topic (subject_id, topic_id) VALUES (?, ?)", rows, false);
+            }
+        }
+        flush(jdbc, "INSERT INTO subject_topic (subject_id, topic_id) VALUES (?, ?)", rows, true);
+
+        String assign = "INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (?, ?, ?, ?)";
+        rows = new ArrayList<>(BATCH);
+        for (long t = 1; t <= shape.trainers(); t++) {
+            for (int i = 0; i < shape.subjectsPerTrainer(); i++) {
+                long subjectId = shape.subjectOf(t, i);
+                rows.add(new Object[]{t, subjectId, trainerName(t), subjectName(subjectId)});
+                rows = flush(jdbc, assign, rows, false);
+            }
+        }
+        flush(jdbc, assign, rows, true);
+        return shape;
+    }
+
+    public static String trainerName(long empId) {
+        return "Trainer " + empId;
+    }
+
+    public static String subjectName(long subjectId) {
+        return "Subject " + subjectId;
+    }
+
+    private static List<Object[]> flush(JdbcTemplate jdbc, String sql, List<Object[]> rows, boolean force) {
+        if (rows.isEmpty() || (!force && rows.size() < BATCH)) {
+            return rows;
+        }
+        jdbc.batchUpdate(sql, rows);
+        return new ArrayList<>(BATCH);
+    }
+}
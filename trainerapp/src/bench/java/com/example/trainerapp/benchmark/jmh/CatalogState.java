@@ -0,0 +1,76 @@
+package com.example.trainerapp.benchmark.jmh;
+
+import com.example.trainerapp.TrainerappApplication;
+import com.example.trainerapp.service.AssignmentIndex;
+import com.example.trainerapp.service.SearchIndex;
+import com.example.trainerapp.service.TrainerTopicMatrix;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The application context the suites measure: the real services and repositories on an
+ * in-memory H2 database in MySQL mode, seeded by {@link BenchmarkData} before the in-memory
+ * indexes are loaded. One context per fork and data size; no web server is started.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    /** Trainers created without any assignment, so write benchmarks always have fresh pairs */
+    static final int FRESH_TRAINERS = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int assignments;
+
+    ConfigurableApplicationContext context;
+    BenchmarkData.Shape shape;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // command-line arguments, so they win over application.properties
+        context = new SpringApplicationBuilder(TrainerappApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        long start = System.nanoTime();
+        shape = BenchmarkData.seed(jdbc, assignments);
+        List<Object[]> fresh = new ArrayList<>(FRESH_TRAINERS);
+        for (int i = 1; i <= FRESH_TRAINERS; i++) {
+            long empId = shape.trainers() + i;
+            fresh.add(new Object[]{BenchmarkData.trainerName(empId), "trainer" + empId + "@example.com"});
+        }
+        jdbc.batchUpdate("INSERT INTO trainer (name, email, experience) VALUES (?, ?, 1)", fresh);
+        context.getBean(AssignmentIndex.class).load();
+        context.getBean(TrainerTopicMatrix.class).load();
+        context.getBean(SearchIndex.class).load();
+        System.out.printf("%nSeeded %,d assignments (%,d trainers, %,d subjects, %,d topics) in %,d ms%n",
+                shape.assignments(), shape.trainers(), shape.subjects(), shape.topics(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
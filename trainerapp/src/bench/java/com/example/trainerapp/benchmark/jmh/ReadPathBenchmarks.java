@@ -0,0 +1,131 @@
+package com.example.trainerapp.benchmark.jmh;
+
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.SubjectWithTrainers;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerMatch;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import com.example.trainerapp.service.SubjectService;
+import com.example.trainerapp.service.TrainerService;
+import com.example.trainerapp.service.TrainerSubjectService;
+import com.example.trainerapp.service.TrainerTopicMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read hot paths, each called with a random existing trainer or subject id:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main ReadPathBenchmarks -p assignments=1000,100000"
+ *
+ * Any JMH option can be appended (-rf json -rff target/jmh.json to keep results, -prof gc for
+ * allocation rates). The counts are measured both through the service, which answers from the
+ * in-memory assignment index, and straight against the repository, which is the fallback path.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class ReadPathBenchmarks {
+
+    private SubjectService subjectService;
+    private TrainerService trainerService;
+    private TrainerSubjectService trainerSubjectService;
+    private TrainerRepository trainerRepository;
+    private TrainerSubjectRepository trainerSubjectRepository;
+    private TrainerTopicMatrix trainerTopicMatrix;
+    private BenchmarkData.Shape shape;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setUp(CatalogState catalog) {
+        subjectService = catalog.bean(SubjectService.class);
+        trainerService = catalog.bean(TrainerService.class);
+        trainerSubjectService = catalog.bean(TrainerSubjectService.class);
+        trainerRepository = catalog.bean(TrainerRepository.class);
+        trainerSubjectRepository = catalog.bean(TrainerSubjectRepository.class);
+        trainerTopicMatrix = catalog.bean(TrainerTopicMatrix.class);
+        shape = catalog.shape;
+    }
+
+    @Benchmark
+    public SubjectWithTrainers getSubjectWithTrainers() {
+        return subjectService.getSubjectWithTrainers(randomSubject());
+    }
+
+    @Benchmark
+    public List<Topic> getTopicsForSubject() {
+        return subjectService.getTopicsForSubject(randomSubject());
+    }
+
+    @Benchmark
+    public List<Subject> getSubjectsByTrainer() {
+        return trainerService.getSubjectsByTrainer(randomTrainer());
+    }
+
+    @Benchmark
+    public List<Trainer> findTrainersBySubjectName() {
+        return trainerRepository.findTrainersBySubjectName(BenchmarkData.subjectName(randomSubject()));
+    }
+
+    @Benchmark
+    public boolean isAssigned() {
+        return trainerSubjectService.isAssigned(randomTrainer(), randomSubject());
+    }
+
+    @Benchmark
+    public long getTrainerAssignmentCount() {
+        return trainerSubjectService.getTrainerAssignmentCount(randomTrainer());
+    }
+
+    @Benchmark
+    public long getSubjectTrainerCount() {
+        return trainerSubjectService.getSubjectTrainerCount(randomSubject());
+    }
+
+    @Benchmark
+    public long countByEmpId() {
+        return trainerSubjectRepository.countByEmpId(randomTrainer());
+    }
+
+    @Benchmark
+    public long countBySubjectId() {
+        return trainerSubjectRepository.countBySubjectId(randomSubject());
+    }
+
+    @Benchmark
+    public List<TrainerMatch> matchTwelveTopics() {
+        List<Long> topics = new ArrayList<>(12);
+        for (int i = 0; i < 12; i++) {
+            topics.add(1L + random.nextInt(shape.topics()));
+        }
+        return trainerTopicMatrix.match(topics, null, null, 20);
+    }
+
+    private long randomTrainer() {
+        return 1 + random.nextInt(shape.trainers());
+    }
+
+    private long randomSubject() {
+        return 1 + random.nextInt(shape.subjects());
+    }
+}
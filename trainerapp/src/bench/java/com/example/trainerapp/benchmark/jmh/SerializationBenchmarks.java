@@ -0,0 +1,88 @@
+package com.example.trainerapp.benchmark.jmh;
+
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding the two largest list responses (trainers with address and subjects JSON,
+ * assignments with denormalized names) as JSON, CBOR and Smile; no database involved:
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Dexec.executable=java \
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main SerializationBenchmarks -prof gc"
+ *
+ * The encoded size of each list is printed once per format during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmarks {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"500"})
+    public int rows;
+
+    private ObjectMapper mapper;
+    private List<Trainer> trainers;
+    private List<TrainerSubject> assignments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new JsonMapper();
+        };
+        trainers = new ArrayList<>(rows);
+        assignments = new ArrayList<>(rows);
+        for (long i = 1; i <= rows; i++) {
+            Trainer trainer = new Trainer();
+            trainer.setEmpId(i);
+            trainer.setName(BenchmarkData.trainerName(i));
+            trainer.setEmail("trainer" + i + "@example.com");
+            trainer.setExperience((int) (i % 25));
+            trainer.setAddress(i + " Long Street Name, Some District, Bengaluru 5600" + (i % 100));
+            trainer.setFormat(i % 2 == 0 ? "Online" : "Offline");
+            trainer.setMobileNumber("98" + (10_000_000 + i));
+            trainer.setSubjects("[\"Java\",\"Spring Boot\",\"Microservices\",\"SQL\"]");
+            trainers.add(trainer);
+            assignments.add(new TrainerSubject(i, i, 1 + i % 50, BenchmarkData.trainerName(i), BenchmarkData.subjectName(1 + i % 50)));
+        }
+        System.out.printf("%n%s: trainers %,d bytes, assignments %,d bytes for %d rows%n",
+                format, mapper.writeValueAsBytes(trainers).length, mapper.writeValueAsBytes(assignments).length, rows);
+    }
+
+    @Benchmark
+    public byte[] trainers() {
+        return mapper.writeValueAsBytes(trainers);
+    }
+
+    @Benchmark
+    public byte[] assignments() {
+        return mapper.writeValueAsBytes(assignments);
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.AdmissionControl;
+import com.example.trainerapp.service.AdmissionControl.EndpointClass;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of the controllers (see {@link AdmissionControl}).
+ *
+ * Requests are classified by method and path: non-GET requests are writes; a GET under /export
+ * is an export; a GET is a point lookup when everything after the collection is numeric ids,
+ * optionally behind check/ or count/ (/subject/7, /trainer-subject/check/3/7,
+ * /trainer-subject/count/trainer/3), and a scan otherwise (/trainer-subject, /subject/7/detail,
+ * /search). The composite pages /subject/{id}/detail and /trainer/{id}/profile count as
+ * {@link #COMPOSITE_CONNECTIONS} connections. Rejected requests get 503 Service Unavailable with
+ * Retry-After. Actuator, CORS preflight (OPTIONS) and error dispatches are not limited.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 30)
+@ConditionalOnProperty(name = "trainerapp.admission.enabled", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    // queries CompositeReadService runs at once for a subject detail or trainer profile
+    static final int COMPOSITE_CONNECTIONS = 4;
+
+    private final AdmissionControl admissionControl;
+    private final String retryAfterSeconds;
+
+    public AdmissionControlFilter(AdmissionControl admissionControl,
+                                  @Value("${trainerapp.admission.retry-after:1s}") Duration retryAfter) {
+        this.admissionControl = admissionControl;
+        this.retryAfterSeconds = Long.toString(Math.max(1, retryAfter.toSeconds()));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod())
+                || request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = classify(request.getMethod(), path);
+        int connections = connections(endpointClass, path);
+        if (!admissionControl.acquire(endpointClass, connections)) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                    "Too many concurrent " + endpointClass.name().toLowerCase(Locale.ROOT) + " requests, retry later");
+            return;
+        }
+        long start = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                // streaming responses hold their connection until the async request completes
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(endpointClass, connections, start, response, released);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                release(endpointClass, connections, start, response, released);
+            }
+        }
+    }
+
+    private void release(EndpointClass endpointClass, int connections, long start, HttpServletResponse response,
+                         AtomicBoolean released) {
+        if (released.compareAndSet(false, true)) {
+            admissionControl.release(endpointClass, connections, System.nanoTime() - start, response.getStatus() >= 500);
+        }
+    }
+
+    static EndpointClass classify(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return EndpointClass.WRITE;
+        }
+        if (path.equals("/export") || path.startsWith("/export/")) {
+            return EndpointClass.EXPORT;
+        }
+        String[] segments = path.split("/");
+        // segments[0] is empty, segments[1] the collection
+        int first = 2;
+        if (segments.length > first && ("check".equals(segments[first]) || "count".equals(segments[first]))) {
+            first++;
+            if (segments.length > first && !isId(segments[first])) {
+                first++;
+            }
+        }
+        if (segments.length <= first) {
+            return EndpointClass.SCAN;
+        }
+        for (int i = first; i < segments.length; i++) {
+            if (!isId(segments[i])) {
+                return EndpointClass.SCAN;
+            }
+        }
+        return EndpointClass.POINT;
+    }
+
+    static int connections(EndpointClass endpointClass, String path) {
+        if (endpointClass != EndpointClass.SCAN) {
+            return 1;
+        }
+        String[] segments = path.split("/");
+        boolean composite = segments.length == 4 && isId(segments[2])
+                && (("subject".equals(segments[1]) && "detail".equals(segments[3]))
+                || ("trainer".equals(segments[1]) && "profile".equals(segments[3])));
+        return composite ? COMPOSITE_CONNECTIONS : 1;
+    }
+
+    private static boolean isId(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.entity.CacheStatistics;
+import com.example.trainerapp.service.EntityCache;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@CrossOrigin("*")
+public class CacheController {
+
+    private final EntityCache entityCache;
+
+    public CacheController(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    // Hit/miss/eviction counters of the entity lookup caches, for sizing trainerapp.cache.*
+    @GetMapping("/stats")
+    public List<CacheStatistics> getStatistics() {
+        return entityCache.statistics();
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.ExportService;
+import com.example.trainerapp.service.ExportService.Format;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Whole-table exports streamed straight to the response.
+ * ?format=ndjson|csv|cbor|smile, ?after=<last id received> resumes an interrupted export.
+ */
+@RestController
+@RequestMapping("/export")
+@CrossOrigin("*")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/trainers")
+    public ResponseEntity<StreamingResponseBody> exportTrainers(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(defaultValue = "0") long after) {
+        Format f = parseFormat(format);
+        return stream("trainers", f, out -> exportService.exportTrainers(f, after, out));
+    }
+
+    @GetMapping("/subjects")
+    public ResponseEntity<StreamingResponseBody> exportSubjects(@RequestParam(defaultValue = "ndjson") String format,
+                                                                @RequestParam(defaultValue = "0") long after) {
+        Format f = parseFormat(format);
+        return stream("subjects", f, out -> exportService.exportSubjects(f, after, out));
+    }
+
+    @GetMapping("/assignments")
+    public ResponseEntity<StreamingResponseBody> exportAssignments(@RequestParam(defaultValue = "ndjson") String format,
+                                                                   @RequestParam(defaultValue = "0") long after) {
+        Format f = parseFormat(format);
+        return stream("assignments", f, out -> exportService.exportAssignments(f, after, out));
+    }
+
+    private static Format parseFormat(String format) {
+        try {
+            return Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, Format format, StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + "." + format.getExtension() + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Marks GET, HEAD and OPTIONS requests as allowed to read from a replica, with read-your-writes:
+ * every other request pins the client to the primary for trainerapp.datasource.read-your-writes
+ * (replication lag allowance), so a client reading back what it just wrote does not see the
+ * replica's older state. A window of 0 disables pinning.
+ *
+ * The pin is the end of the window in epoch millis, answered both as a cookie and as the
+ * Trainerapp-Primary-Until response header; a request carrying either is pinned. The controllers
+ * allow any origin without credentials, so browsers never send the cookie cross-origin: such
+ * clients echo the header (exposed to CORS callers) on their next requests instead.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty("trainerapp.datasource.replica-urls")
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+    static final String PRIMARY_UNTIL_COOKIE = "trainerapp-primary-until";
+    static final String PRIMARY_UNTIL_HEADER = "Trainerapp-Primary-Until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration readYourWrites;
+
+    public ReadRoutingFilter(@Value("${trainerapp.datasource.read-your-writes:5s}") Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean safe = SAFE_METHODS.contains(request.getMethod());
+        if (!safe && !readYourWrites.isZero()) {
+            long until = System.currentTimeMillis() + readYourWrites.toMillis();
+            ResponseCookie cookie = ResponseCookie.from(PRIMARY_UNTIL_COOKIE, Long.toString(until))
+                    .path("/")
+                    .maxAge(readYourWrites)
+                    .httpOnly(true)
+                    .sameSite("Lax")
+                    .build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+            response.setHeader(PRIMARY_UNTIL_HEADER, Long.toString(until));
+            if (request.getHeader(HttpHeaders.ORIGIN) != null) {
+                response.addHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, PRIMARY_UNTIL_HEADER);
+            }
+        }
+        ReadRouting.allowReplica(safe && !pinnedToPrimary(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.clear();
+        }
+    }
+
+    private static boolean pinnedToPrimary(HttpServletRequest request) {
+        if (before(request.getHeader(PRIMARY_UNTIL_HEADER))) {
+            return true;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (PRIMARY_UNTIL_COOKIE.equals(cookie.getName())) {
+                return before(cookie.getValue());
+            }
+        }
+        return false;
+    }
+
+    private static boolean before(String until) {
+        if (until == null) {
+            return false;
+        }
+        try {
+            return Long.parseLong(until.trim()) > System.currentTimeMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.RequestStatistics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per controller method metrics: request latency (trainerapp.http.handler) and, per request,
+ * the SQL statements, entity loads and flushes it caused (trainerapp.http.handler.statements,
+ * .entity-loads, .flushes), all tagged with handler=Controller.method.
+ *
+ * With trainerapp.metrics.debug-headers=true every response also carries X-Query-Count,
+ * X-Entity-Loads and a Server-Timing header (total and SQL time), added just before the
+ * response is committed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final boolean debugHeaders;
+
+    public RequestMetricsFilter(MeterRegistry registry,
+                                @Value("${trainerapp.metrics.debug-headers:false}") boolean debugHeaders) {
+        this.registry = registry;
+        this.debugHeaders = debugHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestStatistics statistics = RequestStatistics.begin();
+        DebugHeadersResponse debugResponse = debugHeaders ? new DebugHeadersResponse(response, statistics, start) : null;
+        try {
+            chain.doFilter(request, debugResponse != null ? debugResponse : response);
+        } finally {
+            RequestStatistics.end();
+            if (debugResponse != null) {
+                debugResponse.writeHeaders();
+            }
+            if (request.isAsyncStarted()) {
+                // streaming responses: time the whole exchange, not just the initial dispatch
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, response, statistics, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, response, statistics, start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestStatistics statistics, long start) {
+        String handler = handlerName(request);
+        Timer.builder("trainerapp.http.handler")
+                .description("Latency per controller method")
+                .tag("handler", handler)
+                .tag("method", request.getMethod())
+                .tag("status", Integer.toString(response.getStatus()))
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        summary("trainerapp.http.handler.statements", "SQL statements per request", handler).record(statistics.statements());
+        summary("trainerapp.http.handler.entity-loads", "Entities loaded per request", handler).record(statistics.entityLoads());
+        summary("trainerapp.http.handler.flushes", "Persistence context flushes per request", handler).record(statistics.flushes());
+    }
+
+    private DistributionSummary summary(String name, String description, String handler) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("handler", handler)
+                .register(registry);
+    }
+
+    private static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler == null ? "none" : handler.getClass().getSimpleName();
+    }
+
+    /**
+     * Adds the debug headers the first time the body is written or the response is committed,
+     * which is after the controller method has run its queries
+     */
+    private static final class DebugHeadersResponse extends HttpServletResponseWrapper {
+
+        private final RequestStatistics statistics;
+        private final long start;
+        private boolean written;
+
+        DebugHeadersResponse(HttpServletResponse response, RequestStatistics statistics, long start) {
+            super(response);
+            this.statistics = statistics;
+            this.start = start;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader("X-Query-Count", Long.toString(statistics.statements()));
+            setHeader("X-Entity-Loads", Long.toString(statistics.entityLoads()));
+            setHeader("Server-Timing", String.format(Locale.ROOT, "app;dur=%.1f, db;dur=%.1f",
+                    (System.nanoTime() - start) / 1e6, statistics.statementNanos() / 1e6));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
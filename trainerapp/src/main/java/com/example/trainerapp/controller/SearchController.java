@@ -0,0 +1,29 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.entity.SearchHit;
+import com.example.trainerapp.service.SearchIndex;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/search")
+@CrossOrigin("*")
+public class SearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final SearchIndex searchIndex;
+
+    public SearchController(SearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // Typeahead over trainers, subjects and topics; type=trainer|subject|topic narrows the results
+    @GetMapping
+    public List<SearchHit> search(@RequestParam String q,
+                                  @RequestParam(required = false) String type,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        return searchIndex.search(q, type, Math.min(limit, MAX_LIMIT));
+    }
+}
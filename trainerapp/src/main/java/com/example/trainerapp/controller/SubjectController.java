@@ -1,13 +1,28 @@
 package com.example.trainerapp.controller;
 
+import com.example.trainerapp.entity.BulkDeleteResult;
+import com.example.trainerapp.entity.ImportReport;
 import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.SubjectDetail;
 import com.example.trainerapp.entity.SubjectRequest;
-import com.example.trainerapp.entity.SubjectWithTrainers;
 import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.service.CatalogVersions;
+import com.example.trainerapp.service.CompositeReadService;
+import com.example.trainerapp.service.FieldProjections;
+import com.example.trainerapp.service.ReadRouting;
+import com.example.trainerapp.service.SubjectImportService;
 import com.example.trainerapp.service.SubjectService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/subject")
@@ -15,9 +30,18 @@ import java.util.List;
 public class SubjectController {
 
     private final SubjectService subjectService;
+    private final CompositeReadService compositeReadService;
+    private final CatalogVersions catalogVersions;
+    private final FieldProjections fieldProjections;
+    private final SubjectImportService subjectImportService;
 
-    public SubjectController(SubjectService subjectService) {
+    public SubjectController(SubjectService subjectService, CompositeReadService compositeReadService, CatalogVersions catalogVersions,
+                             FieldProjections fieldProjections, SubjectImportService subjectImportService) {
         this.subjectService = subjectService;
+        this.compositeReadService = compositeReadService;
+        this.catalogVersions = catalogVersions;
+        this.fieldProjections = fieldProjections;
+        this.subjectImportService = subjectImportService;
     }
 
     @PostMapping
@@ -30,24 +54,64 @@ public class SubjectController {
         return subjectService.addSubjectWithTopics(subjectRequest);
     }
 
+    // Conditional GET: answers 304 from the subjects version without querying
     @GetMapping
-    public List<Subject> getAllSubjects() {
-        return subjectService.getAllSubjects();
+    public ResponseEntity<?> getAllSubjects(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(defaultValue = "false") boolean unpaged,
+                                            @RequestParam(required = false) String fields,
+                                            WebRequest request) {
+        if (catalogVersions.checkNotModified(request, CatalogVersions.SUBJECTS)) {
+            return null;
+        }
+        // read on the primary: replica data older than the ETag would be confirmed by later 304s
+        Object body = ReadRouting.onPrimary(() -> {
+            if (fields != null) {
+                return unpaged ? fieldProjections.all(Subject.class, fields) : fieldProjections.page(Subject.class, fields, cursor, limit);
+            }
+            return unpaged ? subjectService.getAllSubjects() : subjectService.getSubjectsPage(cursor, limit);
+        });
+        return ResponseEntity.ok().cacheControl(catalogVersions.cacheControl()).body(body);
     }
 
+    // ?fields=a,b returns only those subject columns, without the trainers
     @GetMapping("/{id}")
-    public SubjectWithTrainers getSubjectById(@PathVariable Long id) {
+    public Object getSubjectById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return fieldProjections.byId(Subject.class, fields, id).orElse(null);
+        }
         return subjectService.getSubjectWithTrainers(id);
     }
 
+    // Subject page in one call: subject, trainers, topics and each trainer's subjects, loaded concurrently
+    @GetMapping("/{id}/detail")
+    public ResponseEntity<SubjectDetail> getSubjectDetail(@PathVariable Long id) throws InterruptedException {
+        try {
+            SubjectDetail detail = compositeReadService.getSubjectDetail(id);
+            return detail == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(detail);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
+
+    // Conditional GET over the topics and subject-topic link versions
     @GetMapping("/{id}/topics")
-    public List<Topic> getTopicsForSubject(@PathVariable Long id) {
-        return subjectService.getTopicsForSubject(id);
+    public ResponseEntity<List<Topic>> getTopicsForSubject(@PathVariable Long id, WebRequest request) {
+        String[] collections = {CatalogVersions.TOPICS, CatalogVersions.SUBJECT_TOPICS};
+        if (catalogVersions.checkNotModified(request, collections)) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(catalogVersions.cacheControl()).body(ReadRouting.onPrimary(() -> subjectService.getTopicsForSubject(id)));
     }
 
     @PostMapping("/{subjectId}/topics/{topicId}")
     public void assignTopicToSubject(@PathVariable Long subjectId, @PathVariable Long topicId) {
-        subjectService.assignTopicToSubject(subjectId, topicId);
+        try {
+            subjectService.assignTopicToSubject(subjectId, topicId);
+        } catch (DataIntegrityViolationException e) {
+            // the subject_topic foreign keys reject links to a missing subject or topic
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Subject or topic not found");
+        }
     }
 
     @DeleteMapping("/{subjectId}/topics/{topicId}")
@@ -55,8 +119,31 @@ public class SubjectController {
         subjectService.removeTopicFromSubject(subjectId, topicId);
     }
 
+    // Streaming import of many subjects with topics: a JSON array / NDJSON of SubjectRequest, or CSV
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportReport importSubjectsJson(InputStream body) {
+        return subjectImportService.importJson(body);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportReport importSubjectsCsv(InputStream body) {
+        return subjectImportService.importCsv(body);
+    }
+
+    // Renames reach the assignment copies asynchronously, see NameChangePropagator
+    @PutMapping("/{id}")
+    public ResponseEntity<Subject> updateSubject(@PathVariable Long id, @RequestBody Subject subject) {
+        return subjectService.updateSubject(id, subject).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public void deleteSubject(@PathVariable Long id) {
         subjectService.deleteSubject(id);
     }
+
+    // Delete many subjects with their assignments and topic links in one transaction
+    @PostMapping("/delete/bulk")
+    public BulkDeleteResult deleteSubjects(@RequestBody List<Long> ids) {
+        return subjectService.deleteSubjects(ids);
+    }
 }
@@ -1,10 +1,13 @@
 package com.example.trainerapp.controller;
 
 import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.service.CatalogVersions;
+import com.example.trainerapp.service.FieldProjections;
+import com.example.trainerapp.service.ReadRouting;
 import com.example.trainerapp.service.TopicService;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/topic")
@@ -12,9 +15,13 @@ import java.util.List;
 public class TopicController {
 
     private final TopicService topicService;
+    private final CatalogVersions catalogVersions;
+    private final FieldProjections fieldProjections;
 
-    public TopicController(TopicService topicService) {
+    public TopicController(TopicService topicService, CatalogVersions catalogVersions, FieldProjections fieldProjections) {
         this.topicService = topicService;
+        this.catalogVersions = catalogVersions;
+        this.fieldProjections = fieldProjections;
     }
 
     @PostMapping
@@ -22,13 +29,31 @@ public class TopicController {
         return topicService.addTopic(topic);
     }
 
+    // Conditional GET: answers 304 from the topics version without querying
     @GetMapping
-    public List<Topic> getAllTopics() {
-        return topicService.getAllTopics();
+    public ResponseEntity<?> getAllTopics(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit,
+                                          @RequestParam(defaultValue = "false") boolean unpaged,
+                                          @RequestParam(required = false) String fields,
+                                          WebRequest request) {
+        if (catalogVersions.checkNotModified(request, CatalogVersions.TOPICS)) {
+            return null;
+        }
+        // read on the primary: replica data older than the ETag would be confirmed by later 304s
+        Object body = ReadRouting.onPrimary(() -> {
+            if (fields != null) {
+                return unpaged ? fieldProjections.all(Topic.class, fields) : fieldProjections.page(Topic.class, fields, cursor, limit);
+            }
+            return unpaged ? topicService.getAllTopics() : topicService.getTopicsPage(cursor, limit);
+        });
+        return ResponseEntity.ok().cacheControl(catalogVersions.cacheControl()).body(body);
     }
 
     @GetMapping("/{id}")
-    public Topic getTopicById(@PathVariable Long id) {
+    public Object getTopicById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return fieldProjections.byId(Topic.class, fields, id).orElse(null);
+        }
         return topicService.getTopicById(id);
     }
 }
@@ -1,13 +1,22 @@
 package com.example.trainerapp.controller;
 
+import com.example.trainerapp.entity.BulkDeleteResult;
 import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerMatch;
+import com.example.trainerapp.entity.TrainerProfile;
+import com.example.trainerapp.service.CompositeReadService;
+import com.example.trainerapp.service.FieldProjections;
+import com.example.trainerapp.service.PageCursors;
 import com.example.trainerapp.service.TrainerService;
+import com.example.trainerapp.service.TrainerTopicMatrix;
 import com.example.trainerapp.entity.Subject;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/trainer")
@@ -15,9 +24,18 @@ import java.util.Optional;
 public class TrainerController {
 
     private final TrainerService trainerService;
+    private final CompositeReadService compositeReadService;
+    private final FieldProjections fieldProjections;
+    private final TrainerTopicMatrix trainerTopicMatrix;
+    private final PageCursors pageCursors;
 
-    public TrainerController(TrainerService trainerService) {
+    public TrainerController(TrainerService trainerService, CompositeReadService compositeReadService, FieldProjections fieldProjections,
+                             TrainerTopicMatrix trainerTopicMatrix, PageCursors pageCursors) {
         this.trainerService = trainerService;
+        this.compositeReadService = compositeReadService;
+        this.fieldProjections = fieldProjections;
+        this.trainerTopicMatrix = trainerTopicMatrix;
+        this.pageCursors = pageCursors;
     }
 
     @PostMapping
@@ -26,22 +44,57 @@ public class TrainerController {
     }
 
     @GetMapping
-    public List<Trainer> getAllTrainers() {
-        return trainerService.getAllTrainers();
+    public ResponseEntity<?> getAllTrainers(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer limit,
+                                            @RequestParam(defaultValue = "false") boolean unpaged,
+                                            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(unpaged ? fieldProjections.all(Trainer.class, fields)
+                    : fieldProjections.page(Trainer.class, fields, cursor, limit));
+        }
+        if (unpaged) {
+            return ResponseEntity.ok(trainerService.getAllTrainers());
+        }
+        return ResponseEntity.ok(trainerService.getTrainersPage(cursor, limit));
+    }
+
+    // Trainers ranked by how many of the given topics their subjects cover, e.g. /trainer/match?topics=3,7,12&format=online
+    @GetMapping("/match")
+    public List<TrainerMatch> matchTrainers(@RequestParam List<Long> topics,
+                                            @RequestParam(required = false) Integer minExperience,
+                                            @RequestParam(required = false) String format,
+                                            @RequestParam(required = false) Integer limit) {
+        return trainerTopicMatrix.match(topics, minExperience, format, pageCursors.limit(limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Trainer> getTrainerById(@PathVariable Long id) {
+    public ResponseEntity<?> getTrainerById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return fieldProjections.byId(Trainer.class, fields, id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        }
         Optional<Trainer> trainer = trainerService.getTrainerById(id);
         return trainer.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Renames reach the assignment copies asynchronously, see NameChangePropagator
+    @PutMapping("/{id}")
+    public ResponseEntity<Trainer> updateTrainer(@PathVariable Long id, @RequestBody Trainer trainer) {
+        return trainerService.updateTrainer(id, trainer).map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     public String deleteTrainer(@PathVariable Long id) {
         trainerService.deleteTrainer(id);
         return "Trainer deleted successfully";
     }
 
+    // Delete many trainers with their assignments in one transaction
+    @PostMapping("/delete/bulk")
+    public BulkDeleteResult deleteTrainers(@RequestBody List<Long> ids) {
+        return trainerService.deleteTrainers(ids);
+    }
+
     @GetMapping("/{subject}/topic")
     public List<Trainer> getTrainersBySubject(@PathVariable String subject) {
         return trainerService.getTrainersBySubject(subject);
@@ -51,4 +104,15 @@ public class TrainerController {
     public List<Subject> getSubjectsForTrainer(@PathVariable Long id) {
         return trainerService.getSubjectsByTrainer(id);
     }
+
+    // Trainer page in one call: trainer, subjects, assignments and covered topics, loaded concurrently
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<TrainerProfile> getTrainerProfile(@PathVariable Long id) throws InterruptedException {
+        try {
+            TrainerProfile profile = compositeReadService.getTrainerProfile(id);
+            return profile == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(profile);
+        } catch (TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+    }
 }
@@ -1,10 +1,16 @@
 package com.example.trainerapp.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import com.example.trainerapp.entity.AssignmentStatistics;
 import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.service.FieldProjections;
+import com.example.trainerapp.service.StatisticsService;
 import com.example.trainerapp.service.TrainerSubjectService;
 import java.util.List;
 import java.util.Optional;
@@ -14,25 +20,47 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class TrainerSubjectController {
 
+    private static final Logger log = LoggerFactory.getLogger(TrainerSubjectController.class);
+
     @Autowired
     private TrainerSubjectService trainerSubjectService;
 
-    // GET all assignments
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private FieldProjections fieldProjections;
+
+    // GET assignments, one keyset page at a time (?unpaged=true returns the whole table, ?fields=a,b only those columns)
     @GetMapping
-    public ResponseEntity<List<TrainerSubject>> getAllAssignments() {
+    public ResponseEntity<?> getAllAssignments(@RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit,
+                                               @RequestParam(defaultValue = "false") boolean unpaged,
+                                               @RequestParam(required = false) String fields) {
         try {
-            List<TrainerSubject> assignments = trainerSubjectService.getAllAssignments();
-            System.out.println("Total assignments: " + assignments.size());
-            return ResponseEntity.ok(assignments);
+            if (fields != null) {
+                return ResponseEntity.ok(unpaged ? fieldProjections.all(TrainerSubject.class, fields)
+                        : fieldProjections.page(TrainerSubject.class, fields, cursor, limit));
+            }
+            if (unpaged) {
+                return ResponseEntity.ok(trainerSubjectService.getAllAssignments());
+            }
+            return ResponseEntity.ok(trainerSubjectService.getAssignmentsPage(cursor, limit));
+        } catch (ResponseStatusException e) {
+            throw e;
         } catch (Exception e) {
-            System.out.println("Error fetching assignments: " + e.getMessage());
+            log.warn("Error fetching assignments", e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
     // GET assignment by id
     @GetMapping("/{id}")
-    public ResponseEntity<TrainerSubject> getAssignmentById(@PathVariable Long id) {
+    public ResponseEntity<?> getAssignmentById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return fieldProjections.byId(TrainerSubject.class, fields, id)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        }
         Optional<TrainerSubject> assignment = trainerSubjectService.getAssignmentById(id);
         return assignment.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
@@ -40,14 +68,20 @@ public class TrainerSubjectController {
 
     // GET assignments by trainer (empId)
     @GetMapping("/trainer/{empId}")
-    public ResponseEntity<List<TrainerSubject>> getAssignmentsByTrainer(@PathVariable Long empId) {
+    public ResponseEntity<?> getAssignmentsByTrainer(@PathVariable Long empId, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(fieldProjections.where(TrainerSubject.class, fields, "empId", empId));
+        }
         List<TrainerSubject> assignments = trainerSubjectService.getAssignmentsByTrainer(empId);
         return ResponseEntity.ok(assignments);
     }
 
     // GET assignments by subject (subjectId)
     @GetMapping("/subject/{subjectId}")
-    public ResponseEntity<List<TrainerSubject>> getAssignmentsBySubject(@PathVariable Long subjectId) {
+    public ResponseEntity<?> getAssignmentsBySubject(@PathVariable Long subjectId, @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(fieldProjections.where(TrainerSubject.class, fields, "subjectId", subjectId));
+        }
         List<TrainerSubject> assignments = trainerSubjectService.getAssignmentsBySubject(subjectId);
         return ResponseEntity.ok(assignments);
     }
@@ -63,12 +97,41 @@ public class TrainerSubjectController {
         }
     }
 
+    // BULK assign trainers to subjects, one result per submitted pair
+    @PostMapping("/assign/bulk")
+    public ResponseEntity<?> bulkAssign(@RequestBody List<TrainerSubject> assignments) {
+        try {
+            return ResponseEntity.ok(trainerSubjectService.bulkAssign(assignments));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // MOVE one assignment of a trainer to another subject in place
+    @PutMapping("/{empId}/{oldSubjectId}/{newSubjectId}")
+    public ResponseEntity<?> updateAssignment(@PathVariable Long empId, @PathVariable Long oldSubjectId,
+                                              @PathVariable Long newSubjectId) {
+        try {
+            return ResponseEntity.ok(trainerSubjectService.updateAssignment(empId, oldSubjectId, newSubjectId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // MOVE every assignment of a subject to another subject, merging duplicates
+    @PostMapping("/move/{fromSubjectId}/{toSubjectId}")
+    public ResponseEntity<?> moveAssignments(@PathVariable Long fromSubjectId, @PathVariable Long toSubjectId) {
+        try {
+            return ResponseEntity.ok(trainerSubjectService.moveAssignments(fromSubjectId, toSubjectId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // DELETE assignment by trainer and subject
     @DeleteMapping("/{empId}/{subjectId}")
     public ResponseEntity<?> deleteAssignment(@PathVariable Long empId, @PathVariable Long subjectId) {
         try {
-            System.out.println("DELETE request - empId: " + empId + ", subjectId: " + subjectId);
-            
             if (empId == null || subjectId == null) {
                 return ResponseEntity.badRequest().body("Trainer ID and Subject ID are required!");
             }
@@ -76,15 +139,12 @@ public class TrainerSubjectController {
             boolean deleted = trainerSubjectService.deleteAssignment(empId, subjectId);
             
             if (deleted) {
-                System.out.println("Assignment deleted successfully");
                 return ResponseEntity.ok("Assignment deleted successfully!");
             }
             
-            System.out.println("Assignment not found");
             return ResponseEntity.notFound().build();
         } catch (Exception e) {
-            System.out.println("Error deleting assignment: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error deleting assignment {}/{}", empId, subjectId, e);
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
     }
@@ -121,6 +181,12 @@ public class TrainerSubjectController {
         return ResponseEntity.ok(count);
     }
 
+    // GET workload statistics for all trainers, subjects and topics in one call
+    @GetMapping("/stats")
+    public ResponseEntity<AssignmentStatistics> getStatistics() {
+        return ResponseEntity.ok(statisticsService.getStatistics());
+    }
+
     // CLEANUP duplicate assignments
     @PostMapping("/cleanup-duplicates")
     public ResponseEntity<?> cleanupDuplicates() {
@@ -128,8 +194,7 @@ public class TrainerSubjectController {
             int deletedCount = trainerSubjectService.cleanupDuplicates();
             return ResponseEntity.ok("Cleaned up " + deletedCount + " duplicate assignments");
         } catch (Exception e) {
-            System.out.println("Error cleaning duplicates: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error cleaning duplicates", e);
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
     }
@@ -0,0 +1,9 @@
+package com.example.trainerapp.entity;
+
+/**
+ * Projection of the (trainer, subject) pair of an assignment
+ */
+public interface AssignmentKey {
+    Long getEmpId();
+    Long getSubjectId();
+}
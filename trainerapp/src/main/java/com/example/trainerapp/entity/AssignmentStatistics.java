@@ -0,0 +1,32 @@
+package com.example.trainerapp.entity;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class AssignmentStatistics {
+    private Instant generatedAt;
+
+    private long totalTrainers;
+    private long totalSubjects;
+    private long totalTopics;
+    private long totalAssignments;
+
+    private long trainersWithoutSubjects;
+    private long subjectsWithoutTrainers;
+    private long topicsWithoutTrainers;
+
+    private double averageSubjectsPerTrainer;
+    private double averageTrainersPerSubject;
+
+    // number of subjects (or trainers) -> how many trainers (or subjects) have exactly that many
+    private Map<Long, Long> subjectsPerTrainerDistribution;
+    private Map<Long, Long> trainersPerSubjectDistribution;
+
+    private List<WorkloadCount> trainers;
+    private List<WorkloadCount> subjects;
+    private List<TopicWorkload> topics;
+}
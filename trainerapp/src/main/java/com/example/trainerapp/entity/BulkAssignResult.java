@@ -0,0 +1,23 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkAssignResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        UNKNOWN_TRAINER,
+        UNKNOWN_SUBJECT,
+        INVALID
+    }
+
+    private Long empId;
+    private Long subjectId;
+    private Status status;
+}
@@ -0,0 +1,16 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteResult {
+
+    private int requested;
+    private int deleted;
+    private int assignmentsRemoved;
+    private int topicLinksRemoved;
+}
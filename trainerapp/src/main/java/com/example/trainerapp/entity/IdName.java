@@ -0,0 +1,9 @@
+package com.example.trainerapp.entity;
+
+/**
+ * Projection of an entity id and its display name
+ */
+public interface IdName {
+    Long getId();
+    String getName();
+}
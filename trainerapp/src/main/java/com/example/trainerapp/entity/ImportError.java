@@ -0,0 +1,15 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportError {
+
+    // 1-based position of the record in the file, not counting a CSV header
+    private long row;
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.example.trainerapp.entity;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReport {
+
+    private long rows;
+    private long subjectsCreated;
+    private long topicsCreated;
+    private long topicsReused;
+    private long linksCreated;
+    private long errorCount;
+    // the first errors only; errorCount has the total
+    private List<ImportError> errors = new ArrayList<>();
+}
@@ -0,0 +1,33 @@
+package com.example.trainerapp.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Outbox row for a trainer or subject rename, written in the same transaction as the rename
+ * and deleted once the denormalized copies in trainer_subject carry the new name
+ */
+@Entity
+@Table(name = "name_change_outbox")
+@Data
+public class NameChange {
+
+    public static final String TRAINER = "TRAINER";
+    public static final String SUBJECT = "SUBJECT";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "new_name", nullable = false)
+    private String newName;
+
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+}
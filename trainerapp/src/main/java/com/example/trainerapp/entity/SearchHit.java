@@ -0,0 +1,16 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String type; // trainer, subject or topic
+    private Long id;
+    private String title;
+    private String detail;
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectDetail {
+    private Subject subject;
+    private List<Trainer> trainers;
+    private List<Topic> topics;
+    private Map<Long, List<Subject>> subjectsByTrainer; // empId -> every subject that trainer teaches
+}
@@ -0,0 +1,16 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubjectMoveResult {
+
+    private Long fromSubjectId;
+    private Long toSubjectId;
+    private int moved;
+    private int mergedDuplicates;
+}
@@ -12,9 +12,9 @@ public class SubjectTopic {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "subject_id")
+    @Column(name = "subject_id", nullable = false)
     private Long subjectId;
 
-    @Column(name = "topic_id")
+    @Column(name = "topic_id", nullable = false)
     private Long topicId;
 }
@@ -0,0 +1,15 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopicWorkload {
+    private Long topicId;
+    private String topicName;
+    private Long subjectCount; // subjects that include the topic
+    private Long trainerCount; // distinct trainers assigned to any of those subjects
+}
@@ -0,0 +1,22 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerMatch {
+
+    private Long empId;
+    private String name;
+    private int experience;
+    private String format;
+    private int covered;
+    private int requested;
+    private double coverage;
+    private List<Long> matchedTopicIds;
+}
@@ -0,0 +1,17 @@
+package com.example.trainerapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerProfile {
+    private Trainer trainer;
+    private List<Subject> subjects;
+    private List<TrainerSubject> assignments;
+    private List<Topic> topics; // distinct topics across all of the trainer's subjects
+}
@@ -0,0 +1,35 @@
+package com.example.trainerapp.repository;
+
+import com.example.trainerapp.entity.NameChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface NameChangeRepository extends JpaRepository<NameChange, Long> {
+
+    /**
+     * Oldest pending renames first
+     */
+    List<NameChange> findAllByOrderByIdAsc(Limit limit);
+
+    /**
+     * Creation time of the oldest pending rename, for the lag metric
+     */
+    @Query("SELECT MIN(nc.createdAt) FROM NameChange nc")
+    Optional<Long> findOldestCreatedAt();
+
+    /**
+     * Drop the renames a propagation run has read and applied
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NameChange nc WHERE nc.id IN :ids")
+    int deletePropagated(@Param("ids") Collection<Long> ids);
+}
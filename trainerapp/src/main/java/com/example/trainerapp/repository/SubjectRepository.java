@@ -1,7 +1,45 @@
 package com.example.trainerapp.repository;
 
+import com.example.trainerapp.entity.IdName;
 import com.example.trainerapp.entity.Subject;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface SubjectRepository extends JpaRepository<Subject, Long> {
+    List<Subject> findBySubjectIdGreaterThanOrderBySubjectIdAsc(Long subjectId, Limit limit);
+
+    @Query("SELECT s.subjectId AS id, s.subjectName AS name FROM Subject s WHERE s.subjectId IN :ids")
+    List<IdName> findNamesBySubjectIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + TrainerRepository.EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM Subject s WHERE s.subjectId > :afterId ORDER BY s.subjectId")
+    Stream<Subject> streamAfter(@Param("afterId") Long afterId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Subject s WHERE s.subjectId IN :ids")
+    int deleteBySubjectIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * The subject locked until the end of the transaction, for read-modify-write updates
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Subject s WHERE s.subjectId = :id")
+    Optional<Subject> findByIdForUpdate(@Param("id") Long id);
 }
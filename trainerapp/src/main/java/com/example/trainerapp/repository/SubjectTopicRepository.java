@@ -2,10 +2,27 @@ package com.example.trainerapp.repository;
 
 import com.example.trainerapp.entity.SubjectTopic;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface SubjectTopicRepository extends JpaRepository<SubjectTopic, Long> {
     List<SubjectTopic> findBySubjectId(Long subjectId);
     List<SubjectTopic> findBySubjectIdAndTopicId(Long subjectId, Long topicId);
+
+    @Query("SELECT st.topicId FROM SubjectTopic st WHERE st.subjectId = :subjectId ORDER BY st.id")
+    List<Long> findTopicIdsBySubjectId(@Param("subjectId") Long subjectId);
+
+    @Query("SELECT DISTINCT st.topicId FROM SubjectTopic st JOIN TrainerSubject ts ON ts.subjectId = st.subjectId " +
+           "WHERE ts.empId = :empId ORDER BY st.topicId")
+    List<Long> findTopicIdsTaughtBy(@Param("empId") Long empId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SubjectTopic st WHERE st.subjectId IN :subjectIds")
+    int deleteBySubjectIdIn(@Param("subjectIds") Collection<Long> subjectIds);
 }
@@ -1,7 +1,24 @@
 package com.example.trainerapp.repository;
 
+import com.example.trainerapp.entity.IdName;
 import com.example.trainerapp.entity.Topic;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TopicRepository extends JpaRepository<Topic, Long> {
+    List<Topic> findByTopicIdGreaterThanOrderByTopicIdAsc(Long topicId, Limit limit);
+
+    /**
+     * Existing topics with any of the given names, oldest first
+     */
+    @Query("SELECT t.topicId AS id, t.topicName AS name FROM Topic t WHERE t.topicName IN :names ORDER BY t.topicId")
+    List<IdName> findIdsByTopicNameIn(@Param("names") Collection<String> names);
+
+    @Query("SELECT t.topicId FROM Topic t WHERE t.topicId IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
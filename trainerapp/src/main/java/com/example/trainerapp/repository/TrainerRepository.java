@@ -1,13 +1,53 @@
 package com.example.trainerapp.repository;
 
+import com.example.trainerapp.entity.IdName;
 import com.example.trainerapp.entity.Trainer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TrainerRepository extends JpaRepository<Trainer, Long> {
+    int EXPORT_FETCH_SIZE = 1000;
+
     @Query("SELECT t FROM Trainer t JOIN TrainerSubject ts ON t.empId = ts.empId JOIN Subject s ON ts.subjectId = s.subjectId WHERE s.subjectName = :subjectName")
     List<Trainer> findTrainersBySubjectName(@Param("subjectName") String subjectName);
+
+    List<Trainer> findByEmpIdGreaterThanOrderByEmpIdAsc(Long empId, Limit limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Trainer t WHERE t.empId IN :ids")
+    int deleteByEmpIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT t.empId AS id, t.name AS name FROM Trainer t WHERE t.empId IN :ids")
+    List<IdName> findNamesByEmpIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Cursor over all trainers after the given id; must be consumed inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT t FROM Trainer t WHERE t.empId > :afterId ORDER BY t.empId")
+    Stream<Trainer> streamAfter(@Param("afterId") Long afterId);
+
+    /**
+     * The trainer locked until the end of the transaction, for read-modify-write updates
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Trainer t WHERE t.empId = :id")
+    Optional<Trainer> findByIdForUpdate(@Param("id") Long id);
 }
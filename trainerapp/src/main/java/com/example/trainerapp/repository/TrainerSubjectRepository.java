@@ -1,17 +1,41 @@
 
 package com.example.trainerapp.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import com.example.trainerapp.entity.AssignmentKey;
+import com.example.trainerapp.entity.TopicWorkload;
 import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.entity.WorkloadCount;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface TrainerSubjectRepository 
         extends JpaRepository<TrainerSubject, Long> {
+
+    /**
+     * Keyset page of assignments ordered by id
+     */
+    List<TrainerSubject> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Cursor over all assignments after the given id (used by exports)
+     * Must be consumed inside a transaction
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "" + TrainerRepository.EXPORT_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT ts FROM TrainerSubject ts WHERE ts.id > :afterId ORDER BY ts.id")
+    Stream<TrainerSubject> streamAfter(@Param("afterId") Long afterId);
     
     /**
      * Find all assignments by trainer
@@ -22,6 +46,18 @@ public interface TrainerSubjectRepository
      * Find all assignments by subject
      */
     List<TrainerSubject> findBySubjectId(Long subjectId);
+
+    /**
+     * Find trainer ids assigned to a subject, without loading the assignment rows
+     */
+    @Query("SELECT ts.empId FROM TrainerSubject ts WHERE ts.subjectId = :subjectId ORDER BY ts.id")
+    List<Long> findEmpIdsBySubjectId(@Param("subjectId") Long subjectId);
+
+    /**
+     * Find subject ids assigned to a trainer, without loading the assignment rows
+     */
+    @Query("SELECT ts.subjectId FROM TrainerSubject ts WHERE ts.empId = :empId ORDER BY ts.id")
+    List<Long> findSubjectIdsByEmpId(@Param("empId") Long empId);
     
     /**
      * Find specific assignment by trainer and subject
@@ -31,6 +67,23 @@ public interface TrainerSubjectRepository
            nativeQuery = true)
     Optional<TrainerSubject> findByEmpIdAndSubjectId(@Param("empId") Long empId, @Param("subjectId") Long subjectId);
     
+    /**
+     * Every assignment of every trainer who teaches the given subject
+     */
+    @Query("SELECT other.empId AS empId, other.subjectId AS subjectId FROM TrainerSubject ts " +
+           "JOIN TrainerSubject other ON other.empId = ts.empId " +
+           "WHERE ts.subjectId = :subjectId ORDER BY other.empId, other.id")
+    List<AssignmentKey> findKeysOfTrainersTeaching(@Param("subjectId") Long subjectId);
+
+    /**
+     * Find which of the given trainer/subject combinations already exist
+     * Returns a superset filter; callers match the exact pairs
+     */
+    @Query("SELECT ts.empId AS empId, ts.subjectId AS subjectId FROM TrainerSubject ts " +
+           "WHERE ts.empId IN :empIds AND ts.subjectId IN :subjectIds")
+    List<AssignmentKey> findKeysByEmpIdInAndSubjectIdIn(@Param("empIds") Collection<Long> empIds,
+                                                         @Param("subjectIds") Collection<Long> subjectIds);
+    
     /**
      * Delete assignment by trainer and subject
      */
@@ -43,13 +96,116 @@ public interface TrainerSubjectRepository
      * Check if assignment exists
      */
     boolean existsByEmpIdAndSubjectId(Long empId, Long subjectId);
+
+    /**
+     * Count assignments for a trainer without loading them
+     */
+    long countByEmpId(Long empId);
+
+    /**
+     * Count assignments for a subject without loading them
+     */
+    long countBySubjectId(Long subjectId);
     
     /**
-     * Delete all assignments for a subject
+     * Assignment count for every trainer, including trainers with none
+     */
+    @Query("SELECT new com.example.trainerapp.entity.WorkloadCount(t.empId, t.name, COUNT(ts.id)) " +
+           "FROM Trainer t LEFT JOIN TrainerSubject ts ON ts.empId = t.empId " +
+           "GROUP BY t.empId, t.name ORDER BY t.empId")
+    List<WorkloadCount> countAssignmentsPerTrainer();
+
+    /**
+     * Trainer count for every subject, including subjects with none
+     */
+    @Query("SELECT new com.example.trainerapp.entity.WorkloadCount(s.subjectId, s.subjectName, COUNT(ts.id)) " +
+           "FROM Subject s LEFT JOIN TrainerSubject ts ON ts.subjectId = s.subjectId " +
+           "GROUP BY s.subjectId, s.subjectName ORDER BY s.subjectId")
+    List<WorkloadCount> countAssignmentsPerSubject();
+
+    /**
+     * Subjects and distinct trainers reaching every topic through subject_topic
+     */
+    @Query("SELECT new com.example.trainerapp.entity.TopicWorkload(tp.topicId, tp.topicName, COUNT(DISTINCT st.subjectId), COUNT(DISTINCT ts.empId)) " +
+           "FROM Topic tp LEFT JOIN SubjectTopic st ON st.topicId = tp.topicId " +
+           "LEFT JOIN TrainerSubject ts ON ts.subjectId = st.subjectId " +
+           "GROUP BY tp.topicId, tp.topicName ORDER BY tp.topicId")
+    List<TopicWorkload> countWorkloadPerTopic();
+
+    /**
+     * Delete all assignments for a subject in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TrainerSubject ts WHERE ts.subjectId = :subjectId")
+    int deleteBySubjectId(@Param("subjectId") Long subjectId);
+
+    /**
+     * Delete all assignments for any of the subjects in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TrainerSubject ts WHERE ts.subjectId IN :subjectIds")
+    int deleteBySubjectIdIn(@Param("subjectIds") Collection<Long> subjectIds);
+
+    /**
+     * Delete all assignments for any of the trainers in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TrainerSubject ts WHERE ts.empId IN :empIds")
+    int deleteByEmpIdIn(@Param("empIds") Collection<Long> empIds);
+
+    /**
+     * Move one assignment to another subject in place, keeping its id
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrainerSubject ts SET ts.subjectId = :newSubjectId, ts.subjectName = :subjectName " +
+           "WHERE ts.empId = :empId AND ts.subjectId = :oldSubjectId")
+    int reassign(@Param("empId") Long empId, @Param("oldSubjectId") Long oldSubjectId,
+                 @Param("newSubjectId") Long newSubjectId, @Param("subjectName") String subjectName);
+
+    /**
+     * Delete the assignments of a subject whose trainer is already assigned to the target subject
+     * The derived table lets MySQL read trainer_subject while deleting from it
      */
     @Modifying
     @Transactional
-    void deleteBySubjectId(Long subjectId);
+    @Query(value = "DELETE FROM trainer_subject WHERE subject_id = :fromSubjectId AND emp_id IN (" +
+                   "SELECT emp_id FROM (SELECT emp_id FROM trainer_subject WHERE subject_id = :toSubjectId) AS target" +
+                   ")", nativeQuery = true)
+    int deleteOverlapping(@Param("fromSubjectId") Long fromSubjectId, @Param("toSubjectId") Long toSubjectId);
+
+    /**
+     * Move every assignment of one subject to another in one statement
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrainerSubject ts SET ts.subjectId = :toSubjectId, ts.subjectName = :subjectName " +
+           "WHERE ts.subjectId = :fromSubjectId")
+    int moveSubject(@Param("fromSubjectId") Long fromSubjectId, @Param("toSubjectId") Long toSubjectId,
+                    @Param("subjectName") String subjectName);
+
+    /**
+     * Rewrite at most :limit stale trainer name copies for one trainer
+     * Rows already carrying the name are skipped, so repeating until fewer than :limit rows
+     * change converges and keeps every transaction short
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE trainer_subject SET trainer_name = :name WHERE emp_id = :empId AND trainer_name <> :name LIMIT :limit",
+           nativeQuery = true)
+    int renameTrainer(@Param("empId") Long empId, @Param("name") String name, @Param("limit") int limit);
+
+    /**
+     * Rewrite at most :limit stale subject name copies for one subject
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE trainer_subject SET subject_name = :name WHERE subject_id = :subjectId AND subject_name <> :name LIMIT :limit",
+           nativeQuery = true)
+    int renameSubject(@Param("subjectId") Long subjectId, @Param("name") String name, @Param("limit") int limit);
 
     /**
      * Delete all duplicates keeping only the first one
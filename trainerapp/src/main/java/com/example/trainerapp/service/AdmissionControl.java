@@ -0,0 +1,239 @@
+package com.example.trainerapp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limits per endpoint class, so a burst of expensive scans cannot take every pooled
+ * connection away from cheap point lookups.
+ *
+ * The limit counts connections: a request takes one, a composite page one per query it runs
+ * concurrently. Each class admits requests while their connections fit its current limit (a
+ * request wider than the limit runs when the class is idle); further requests wait in a bounded
+ * queue for at most max-wait, and are rejected when the queue is full or the wait runs out.
+ * The limit adapts to latency (AIMD): a request slower than the class's target latency, or one
+ * that failed with a 5xx, cuts the limit by the backoff factor; a fast request while the limit
+ * is at least half used raises it by 1/limit, so about one step per limit's worth of requests.
+ * The limit stays within min-limit..max-limit.
+ *
+ * Settings are per class under trainerapp.admission.point|scan|export|write.*; metrics are
+ * trainerapp.admission.limit, .in-flight, .queued and .rejected, tagged with class.
+ */
+@Component
+public class AdmissionControl implements MeterBinder {
+
+    public enum EndpointClass {
+        /** GET of a single row by id, existence checks and counts */
+        POINT(20, 4, 100, 100, Duration.ofMillis(500), Duration.ofMillis(50)),
+        /** every other GET: lists, composite details, search, stats */
+        SCAN(4, 1, 6, 20, Duration.ofSeconds(2), Duration.ofSeconds(1)),
+        /**
+         * Streaming exports: each holds a connection for the whole download, so their duration
+         * says nothing about load and only failures lower the limit
+         */
+        EXPORT(2, 1, 2, 4, Duration.ofSeconds(1), null),
+        /** POST, PUT, DELETE */
+        WRITE(8, 2, 20, 50, Duration.ofSeconds(1), Duration.ofMillis(500));
+
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final int queueCapacity;
+        private final Duration maxWait;
+        private final Duration targetLatency;
+
+        EndpointClass(int initialLimit, int minLimit, int maxLimit, int queueCapacity, Duration maxWait, Duration targetLatency) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.queueCapacity = queueCapacity;
+            this.maxWait = maxWait;
+            this.targetLatency = targetLatency;
+        }
+    }
+
+    private final Map<EndpointClass, Limiter> limiters = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControl(Environment environment) {
+        double backoff = environment.getProperty("trainerapp.admission.backoff", Double.class, 0.9);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "trainerapp.admission." + endpointClass.name().toLowerCase(Locale.ROOT) + ".";
+            int minLimit = environment.getProperty(prefix + "min-limit", Integer.class, endpointClass.minLimit);
+            int maxLimit = environment.getProperty(prefix + "max-limit", Integer.class, endpointClass.maxLimit);
+            int initialLimit = environment.getProperty(prefix + "initial-limit", Integer.class, endpointClass.initialLimit);
+            if (minLimit < 1 || maxLimit < minLimit) {
+                throw new IllegalStateException(prefix + "min-limit must be at least 1 and at most max-limit");
+            }
+            limiters.put(endpointClass, new Limiter(
+                    Math.clamp(initialLimit, minLimit, maxLimit), minLimit, maxLimit,
+                    environment.getProperty(prefix + "queue-capacity", Integer.class, endpointClass.queueCapacity),
+                    environment.getProperty(prefix + "max-wait", Duration.class, endpointClass.maxWait),
+                    environment.getProperty(prefix + "target-latency", Duration.class, endpointClass.targetLatency),
+                    backoff));
+        }
+    }
+
+    /**
+     * Admit a request of the class that needs the given number of connections, waiting in its
+     * queue if they do not fit the limit. Returns false when the request should be rejected;
+     * after true, {@link #release} with the same connections must follow.
+     */
+    public boolean acquire(EndpointClass endpointClass, int connections) {
+        return limiters.get(endpointClass).acquire(connections);
+    }
+
+    public void release(EndpointClass endpointClass, int connections, long latencyNanos, boolean failed) {
+        limiters.get(endpointClass).release(connections, latencyNanos, failed);
+    }
+
+    public int limit(EndpointClass endpointClass) {
+        return limiters.get(endpointClass).limit();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        limiters.forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("trainerapp.admission.limit", limiter, Limiter::limit)
+                    .description("Current concurrency limit of the endpoint class")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("trainerapp.admission.in-flight", limiter, Limiter::inFlight)
+                    .description("Connections held by admitted requests")
+                    .tag("class", tag)
+                    .register(registry);
+            Gauge.builder("trainerapp.admission.queued", limiter, Limiter::queued)
+                    .description("Requests waiting for admission")
+                    .tag("class", tag)
+                    .register(registry);
+            FunctionCounter.builder("trainerapp.admission.rejected", limiter.rejected, LongAdder::doubleValue)
+                    .description("Requests answered 503 because the class was at its limit")
+                    .tag("class", tag)
+                    .register(registry);
+        });
+    }
+
+    private static final class Limiter {
+
+        private final int minLimit;
+        private final int maxLimit;
+        private final int queueCapacity;
+        private final long maxWaitNanos;
+        private final long targetLatencyNanos;
+        private final double backoff;
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private double limit;
+        private int inFlight;
+        private int queued;
+        private final LongAdder rejected = new LongAdder();
+
+        Limiter(int initialLimit, int minLimit, int maxLimit, int queueCapacity, Duration maxWait,
+                Duration targetLatency, double backoff) {
+            this.limit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.queueCapacity = queueCapacity;
+            this.maxWaitNanos = maxWait.toNanos();
+            this.targetLatencyNanos = targetLatency == null ? Long.MAX_VALUE : targetLatency.toNanos();
+            this.backoff = backoff;
+        }
+
+        boolean acquire(int connections) {
+            lock.lock();
+            try {
+                if (fits(connections) && queued == 0) {
+                    inFlight += connections;
+                    return true;
+                }
+                if (queued >= queueCapacity) {
+                    rejected.increment();
+                    return false;
+                }
+                queued++;
+                try {
+                    long remaining = maxWaitNanos;
+                    while (!fits(connections)) {
+                        if (remaining <= 0) {
+                            rejected.increment();
+                            return false;
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                    inFlight += connections;
+                    return true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rejected.increment();
+                    return false;
+                } finally {
+                    queued--;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean fits(int connections) {
+            return inFlight == 0 || inFlight + connections <= (int) limit;
+        }
+
+        void release(int connections, long latencyNanos, boolean failed) {
+            lock.lock();
+            try {
+                if (failed || latencyNanos > targetLatencyNanos) {
+                    limit = Math.max(minLimit, limit * backoff);
+                } else if (inFlight * 2 >= limit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                }
+                inFlight -= connections;
+                // every waiter checks whether its connections fit now; a wide one must not hold up narrower ones
+                if (queued > 0) {
+                    released.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int limit() {
+            lock.lock();
+            try {
+                return (int) limit;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int inFlight() {
+            lock.lock();
+            try {
+                return inFlight;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int queued() {
+            lock.lock();
+            try {
+                return queued;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
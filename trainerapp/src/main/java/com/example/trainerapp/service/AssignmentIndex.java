@@ -0,0 +1,429 @@
+package com.example.trainerapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * In-process copy of the trainer_subject relation for membership and degree queries.
+ *
+ * Both directions are kept as {@link LongAdjacency} tables (trainer -> sorted subject ids and
+ * subject -> sorted trainer ids), loaded at startup and then kept current write-through by
+ * the services that change assignments. Until the first load completes {@link #isReady()} is
+ * false and callers should go to the database instead.
+ *
+ * Write-through re-reads the committed rows of the trainers or subjects a write touched
+ * ({@link #refreshTrainers}, {@link #refreshSubjects}) rather than applying the write itself.
+ * Re-read and update happen under one writer lock, so when two writes commit in one order and
+ * report in the other, the later refresh still sees both. Writes made by other instances are
+ * picked up by a full reload every trainerapp.assignments.reload-interval.
+ */
+@Component
+public class AssignmentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AssignmentIndex.class);
+
+    private static final int OP_ADD = 0;
+    private static final int OP_REMOVE = 1;
+    private static final int OP_REMOVE_TRAINER = 2;
+    private static final int OP_REMOVE_SUBJECT = 3;
+    private static final int OP_REFRESH_TRAINER = 4;
+    private static final int OP_REFRESH_SUBJECT = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // orders the writers and is held across a refresh's re-read; readers only take the read lock
+    private final ReentrantLock writes = new ReentrantLock();
+
+    private LongAdjacency byTrainer = new LongAdjacency();
+    private LongAdjacency bySubject = new LongAdjacency();
+    private volatile boolean ready;
+
+    // writes seen while a load is running, replayed on top of the freshly loaded snapshot
+    private List<long[]> pendingWrites;
+    private final List<LongConsumer> trainerListeners = new CopyOnWriteArrayList<>();
+
+    public AssignmentIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public synchronized void load() {
+        writes.lock();
+        lock.writeLock().lock();
+        try {
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+            writes.unlock();
+        }
+
+        LongAdjacency trainers = new LongAdjacency(4096);
+        LongAdjacency subjects = new LongAdjacency(1024);
+        try {
+            jdbcTemplate.query(con -> {
+                var statement = con.prepareStatement("SELECT emp_id, subject_id FROM trainer_subject ORDER BY emp_id, subject_id");
+                statement.setFetchSize(10_000);
+                return statement;
+            }, rs -> {
+                long empId = rs.getLong(1);
+                long subjectId = rs.getLong(2);
+                trainers.add(empId, subjectId);
+                subjects.add(subjectId, empId);
+            });
+            trainers.trim();
+            subjects.trim();
+        } catch (RuntimeException e) {
+            writes.lock();
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+                writes.unlock();
+            }
+            throw e;
+        }
+
+        boolean reload;
+        LongAdjacency previous;
+        writes.lock();
+        try {
+            // the rows read above may predate a refresh that ran meanwhile, so refreshed keys are read again
+            Set<Long> refreshedTrainers = new LinkedHashSet<>();
+            Set<Long> refreshedSubjects = new LinkedHashSet<>();
+            try {
+                for (long[] op : pendingWrites) {
+                    switch ((int) op[0]) {
+                        case OP_REFRESH_TRAINER -> refreshedTrainers.add(op[1]);
+                        case OP_REFRESH_SUBJECT -> refreshedSubjects.add(op[2]);
+                        default -> apply(trainers, subjects, (int) op[0], op[1], op[2]);
+                    }
+                }
+                if (!refreshedTrainers.isEmpty()) {
+                    replace(trainers, subjects, true, refreshedTrainers, select("emp_id", refreshedTrainers));
+                }
+                if (!refreshedSubjects.isEmpty()) {
+                    replace(trainers, subjects, false, refreshedSubjects, select("subject_id", refreshedSubjects));
+                }
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    pendingWrites = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                pendingWrites = null;
+                reload = ready;
+                previous = byTrainer;
+                byTrainer = trainers;
+                bySubject = subjects;
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writes.unlock();
+        }
+        log.info("Assignment index loaded: {} assignments", trainers.edgeCount());
+
+        if (reload) {
+            notifyTrainers(changedTrainers(previous, trainers));
+        }
+    }
+
+    /**
+     * Load again from the database, picking up assignments written by other instances
+     */
+    @Scheduled(fixedDelayString = "${trainerapp.assignments.reload-interval:5m}",
+            initialDelayString = "${trainerapp.assignments.reload-interval:5m}")
+    public void reload() {
+        if (ready) {
+            load();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isAssigned(long empId, long subjectId) {
+        lock.readLock().lock();
+        try {
+            return byTrainer.contains(empId, subjectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trainerDegree(long empId) {
+        lock.readLock().lock();
+        try {
+            return byTrainer.degree(empId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int subjectDegree(long subjectId) {
+        lock.readLock().lock();
+        try {
+            return bySubject.degree(subjectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] subjectsOf(long empId) {
+        lock.readLock().lock();
+        try {
+            return byTrainer.neighbours(empId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] trainersOf(long subjectId) {
+        lock.readLock().lock();
+        try {
+            return bySubject.neighbours(subjectId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return byTrainer.edgeCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return byTrainer.estimatedBytes() + bySubject.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Release the spare capacity left behind by incremental writes
+     */
+    public void compact() {
+        lock.writeLock().lock();
+        try {
+            byTrainer.trim();
+            bySubject.trim();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply one change as given, without reading the database; services use the refresh methods
+     */
+    public void add(long empId, long subjectId) {
+        write(OP_ADD, empId, subjectId);
+    }
+
+    public void remove(long empId, long subjectId) {
+        write(OP_REMOVE, empId, subjectId);
+    }
+
+    public void removeTrainer(long empId) {
+        write(OP_REMOVE_TRAINER, empId, 0L);
+    }
+
+    public void removeSubject(long subjectId) {
+        write(OP_REMOVE_SUBJECT, 0L, subjectId);
+    }
+
+    /**
+     * Replace the subjects of these trainers with their committed rows; call once the
+     * transaction that changed them has committed
+     */
+    public void refreshTrainers(Collection<Long> empIds) {
+        refresh(true, empIds);
+    }
+
+    /**
+     * Replace the trainers of these subjects with their committed rows; call once the
+     * transaction that changed them has committed
+     */
+    public void refreshSubjects(Collection<Long> subjectIds) {
+        refresh(false, subjectIds);
+    }
+
+    /**
+     * Register a callback for every trainer whose subjects changed; it runs after the index
+     * has been updated, outside its lock
+     */
+    public void addTrainerListener(LongConsumer listener) {
+        trainerListeners.add(listener);
+    }
+
+    private void write(int op, long empId, long subjectId) {
+        long[] changed;
+        writes.lock();
+        lock.writeLock().lock();
+        try {
+            changed = apply(byTrainer, bySubject, op, empId, subjectId);
+            if (pendingWrites != null) {
+                pendingWrites.add(new long[]{op, empId, subjectId});
+            }
+        } finally {
+            lock.writeLock().unlock();
+            writes.unlock();
+        }
+        notifyTrainers(changed);
+    }
+
+    private void refresh(boolean byEmpId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        long[] changed;
+        writes.lock();
+        try {
+            List<long[]> rows = select(byEmpId ? "emp_id" : "subject_id", ids);
+            lock.writeLock().lock();
+            try {
+                changed = replace(byTrainer, bySubject, byEmpId, ids, rows);
+                if (pendingWrites != null) {
+                    for (Long id : ids) {
+                        pendingWrites.add(byEmpId ? new long[]{OP_REFRESH_TRAINER, id, 0L} : new long[]{OP_REFRESH_SUBJECT, 0L, id});
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            writes.unlock();
+        }
+        notifyTrainers(changed);
+    }
+
+    /**
+     * The (emp_id, subject_id) rows whose column holds one of the ids
+     */
+    private List<long[]> select(String column, Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<long[]> rows = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += BatchLoader.MAX_IN_LIST) {
+            List<Long> chunk = list.subList(from, Math.min(from + BatchLoader.MAX_IN_LIST, list.size()));
+            String in = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT emp_id, subject_id FROM trainer_subject WHERE " + column + " IN (" + in + ")",
+                    rs -> {
+                        rows.add(new long[]{rs.getLong(1), rs.getLong(2)});
+                    }, chunk.toArray());
+        }
+        return rows;
+    }
+
+    /**
+     * Drop every edge of the trainers (or subjects) and add their rows back;
+     * returns the trainers whose subjects may have changed
+     */
+    private static long[] replace(LongAdjacency trainers, LongAdjacency subjects, boolean byEmpId,
+                                  Collection<Long> ids, List<long[]> rows) {
+        Set<Long> touched = new LinkedHashSet<>();
+        for (Long id : ids) {
+            long[] removed = byEmpId
+                    ? apply(trainers, subjects, OP_REMOVE_TRAINER, id, 0L)
+                    : apply(trainers, subjects, OP_REMOVE_SUBJECT, 0L, id);
+            for (long empId : removed) {
+                touched.add(empId);
+            }
+        }
+        for (long[] row : rows) {
+            apply(trainers, subjects, OP_ADD, row[0], row[1]);
+            touched.add(row[0]);
+        }
+        return touched.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Trainers whose subjects differ between two loads
+     */
+    private static long[] changedTrainers(LongAdjacency before, LongAdjacency after) {
+        Set<Long> changed = new LinkedHashSet<>();
+        before.forEachKey(empId -> {
+            if (!Arrays.equals(before.neighbours(empId), after.neighbours(empId))) {
+                changed.add(empId);
+            }
+        });
+        after.forEachKey(empId -> {
+            if (before.degree(empId) == 0) {
+                changed.add(empId);
+            }
+        });
+        return changed.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void notifyTrainers(long[] changed) {
+        for (LongConsumer listener : trainerListeners) {
+            for (long trainer : changed) {
+                listener.accept(trainer);
+            }
+        }
+    }
+
+    /**
+     * Returns the trainers whose subjects the operation touched
+     */
+    private static long[] apply(LongAdjacency trainers, LongAdjacency subjects, int op, long empId, long subjectId) {
+        switch (op) {
+            case OP_ADD -> {
+                trainers.add(empId, subjectId);
+                subjects.add(subjectId, empId);
+                return new long[]{empId};
+            }
+            case OP_REMOVE -> {
+                trainers.remove(empId, subjectId);
+                subjects.remove(subjectId, empId);
+                return new long[]{empId};
+            }
+            case OP_REMOVE_TRAINER -> {
+                for (long s : trainers.removeKey(empId)) {
+                    subjects.remove(s, empId);
+                }
+                return new long[]{empId};
+            }
+            case OP_REMOVE_SUBJECT -> {
+                long[] removed = subjects.removeKey(subjectId);
+                for (long t : removed) {
+                    trainers.remove(t, subjectId);
+                }
+                return removed;
+            }
+            default -> throw new IllegalStateException("unknown op " + op);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves lists of ids into entities with a few set-based IN (...) queries
+ * instead of one findById per id, going through {@link EntityCache} so only the
+ * misses reach the database. Results keep the order (and any repeats) of the
+ * requested ids; ids with no matching row are skipped.
+ */
+@Component
+public class BatchLoader {
+
+    static final int MAX_IN_LIST = 500;
+
+    private final EntityCache entityCache;
+
+    public BatchLoader(EntityCache entityCache) {
+        this.entityCache = entityCache;
+    }
+
+    public List<Trainer> trainers(List<Long> empIds) {
+        return loadInOrder(empIds, entityCache::trainers, Trainer::getEmpId);
+    }
+
+    public List<Subject> subjects(List<Long> subjectIds) {
+        return loadInOrder(subjectIds, entityCache::subjects, Subject::getSubjectId);
+    }
+
+    public List<Topic> topics(List<Long> topicIds) {
+        return loadInOrder(topicIds, entityCache::topics, Topic::getTopicId);
+    }
+
+    <T> List<T> loadInOrder(List<Long> ids, Function<List<Long>, List<T>> fetch, Function<T, Long> idOf) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, T> byId = new HashMap<>(distinct.size() * 2);
+        for (int from = 0; from < distinct.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + MAX_IN_LIST, distinct.size()));
+            for (T row : fetch.apply(chunk)) {
+                byId.put(idOf.apply(row), row);
+            }
+        }
+
+        List<T> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                result.add(row);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Distinct non-null ids in request order; an empty or oversized request is a 400
+     */
+    static List<Long> distinctIds(List<Long> ids, int maxItems) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one id is required");
+        }
+        if (ids.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + maxItems + " ids per request");
+        }
+        LinkedHashSet<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        return new ArrayList<>(unique);
+    }
+}
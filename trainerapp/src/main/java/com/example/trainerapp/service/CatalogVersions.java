@@ -0,0 +1,176 @@
+package com.example.trainerapp.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version markers for the reference-data collections, used as HTTP validators.
+ *
+ * Every write to a collection bumps its version and last-modified time once the write has
+ * committed, so a conditional GET can be answered 304 Not Modified from these markers alone.
+ * The ETag also carries the start time of this process: versions live in memory, and after a
+ * restart no ETag handed out earlier may match again. The same version is served as JSON, CBOR
+ * or Smile depending on Accept, so the ETag names the representation and responses vary by Accept.
+ *
+ * Versions are per process: an instance does not see the writes handled by another, and would
+ * keep confirming its own ETags. With one instance (trainerapp.catalog.max-staleness=0, the
+ * default) responses are revalidated on every use (no-cache). With several instances behind a
+ * load balancer, set max-staleness: validators then also expire at the end of each window of
+ * that length, and responses may be reused without revalidation (max-age) until then, so another
+ * instance's write shows within one window.
+ */
+@Component
+public class CatalogVersions {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String TOPICS = "topics";
+    public static final String SUBJECT_TOPICS = "subject-topics";
+
+    // the converters of the catalog endpoints, in the order Spring MVC tries them
+    private static final List<MediaType> REPRESENTATIONS = List.of(
+            MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final long windowMillis;
+    private final Map<String, Marker> markers = Map.of(
+            SUBJECTS, new Marker(),
+            TOPICS, new Marker(),
+            SUBJECT_TOPICS, new Marker());
+
+    public CatalogVersions(@Value("${trainerapp.catalog.max-staleness:0s}") Duration maxStaleness) {
+        this.windowMillis = maxStaleness.toMillis();
+    }
+
+    /**
+     * Mark collections as changed; inside a transaction this happens after commit
+     */
+    public void touch(String... collections) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(collections);
+                }
+            });
+        } else {
+            bump(collections);
+        }
+    }
+
+    /**
+     * Conditional GET over the given collections: true when the request was answered 304
+     */
+    public boolean checkNotModified(WebRequest request, String... collections) {
+        if (request instanceof ServletWebRequest servlet && servlet.getResponse() != null) {
+            servlet.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(etag(representation(request.getHeader(HttpHeaders.ACCEPT)), collections),
+                lastModified(collections));
+    }
+
+    /**
+     * Strong ETag over the given collections for one representation, e.g. "lx3k9a-4-12" for
+     * JSON and "lx3k9a-4-12-cbor" for CBOR; with max-staleness the current window follows the versions
+     */
+    public String etag(MediaType representation, String... collections) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (String collection : collections) {
+            etag.append('-').append(marker(collection).version.get());
+        }
+        if (windowMillis > 0) {
+            etag.append('-').append(Long.toString(System.currentTimeMillis() / windowMillis, 36));
+        }
+        if (!MediaType.APPLICATION_JSON.equals(representation)) {
+            etag.append('-').append(representation.getSubtype());
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * The representation an Accept header gets: its most preferred type that one of the
+     * converters produces, JSON when there is none
+     */
+    static MediaType representation(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            for (MediaType representation : REPRESENTATIONS) {
+                if (type.getQualityValue() > 0 && type.includes(representation)) {
+                    return representation;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    /**
+     * Latest change time (epoch millis) over the given collections; with max-staleness no earlier
+     * than the start of the current window
+     */
+    public long lastModified(String... collections) {
+        long latest = 0;
+        for (String collection : collections) {
+            latest = Math.max(latest, marker(collection).lastModified);
+        }
+        if (windowMillis > 0) {
+            long now = System.currentTimeMillis();
+            latest = Math.max(latest, now - now % windowMillis);
+        }
+        return latest;
+    }
+
+    /**
+     * Cache-Control of the catalog responses: no-cache, or with max-staleness reuse until the
+     * current window ends
+     */
+    public CacheControl cacheControl() {
+        if (windowMillis == 0) {
+            return CacheControl.noCache();
+        }
+        long remaining = windowMillis - System.currentTimeMillis() % windowMillis;
+        return CacheControl.maxAge(Duration.ofMillis(remaining)).mustRevalidate();
+    }
+
+    private void bump(String... collections) {
+        for (String collection : collections) {
+            Marker marker = marker(collection);
+            marker.lastModified = System.currentTimeMillis();
+            marker.version.incrementAndGet();
+        }
+    }
+
+    private Marker marker(String collection) {
+        Marker marker = markers.get(collection);
+        if (marker == null) {
+            throw new IllegalArgumentException("Unknown catalog collection " + collection);
+        }
+        return marker;
+    }
+
+    private static final class Marker {
+        private final AtomicLong version = new AtomicLong();
+        private volatile long lastModified = System.currentTimeMillis();
+    }
+}
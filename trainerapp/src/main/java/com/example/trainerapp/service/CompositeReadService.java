@@ -0,0 +1,173 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.AssignmentKey;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.SubjectDetail;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerProfile;
+import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.repository.SubjectTopicRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Page-level reads that combine several independent queries.
+ * Each query runs on its own virtual thread so the page costs as much as its slowest query;
+ * if one fails or the deadline passes, the others are cancelled before the call returns.
+ * Their statements count towards the calling request's {@link RequestStatistics}.
+ */
+@Service
+public class CompositeReadService {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final TrainerSubjectRepository trainerSubjectRepository;
+    private final SubjectTopicRepository subjectTopicRepository;
+    private final EntityCache entityCache;
+    private final BatchLoader batchLoader;
+    private final AssignmentIndex assignmentIndex;
+    private final Duration timeout;
+
+    public CompositeReadService(TrainerSubjectRepository trainerSubjectRepository, SubjectTopicRepository subjectTopicRepository,
+                                EntityCache entityCache, BatchLoader batchLoader, AssignmentIndex assignmentIndex,
+                                @Value("${trainerapp.composite.timeout:2s}") Duration timeout) {
+        this.trainerSubjectRepository = trainerSubjectRepository;
+        this.subjectTopicRepository = subjectTopicRepository;
+        this.entityCache = entityCache;
+        this.batchLoader = batchLoader;
+        this.assignmentIndex = assignmentIndex;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Subject, its trainers, its topics and every subject those trainers teach; null if the subject does not exist
+     */
+    public SubjectDetail getSubjectDetail(Long subjectId) throws TimeoutException, InterruptedException {
+        try (Scope scope = new Scope()) {
+            Future<Optional<Subject>> subject = scope.fork(() -> entityCache.findSubject(subjectId));
+            Future<List<Trainer>> trainers = scope.fork(() -> batchLoader.trainers(trainerSubjectRepository.findEmpIdsBySubjectId(subjectId)));
+            Future<List<Topic>> topics = scope.fork(() -> batchLoader.topics(subjectTopicRepository.findTopicIdsBySubjectId(subjectId)));
+            Future<Map<Long, List<Subject>>> subjectsByTrainer = scope.fork(() -> subjectsOfTrainersTeaching(subjectId));
+            scope.join(timeout);
+
+            if (subject.resultNow().isEmpty()) {
+                return null;
+            }
+            return new SubjectDetail(subject.resultNow().get(), trainers.resultNow(), topics.resultNow(), subjectsByTrainer.resultNow());
+        }
+    }
+
+    /**
+     * Trainer, their subjects, assignment rows and the topics those subjects cover; null if the trainer does not exist
+     */
+    public TrainerProfile getTrainerProfile(Long empId) throws TimeoutException, InterruptedException {
+        try (Scope scope = new Scope()) {
+            Future<Optional<Trainer>> trainer = scope.fork(() -> entityCache.findTrainer(empId));
+            Future<List<Subject>> subjects = scope.fork(() -> batchLoader.subjects(trainerSubjectRepository.findSubjectIdsByEmpId(empId)));
+            Future<List<TrainerSubject>> assignments = scope.fork(() -> trainerSubjectRepository.findByEmpId(empId));
+            Future<List<Topic>> topics = scope.fork(() -> batchLoader.topics(subjectTopicRepository.findTopicIdsTaughtBy(empId)));
+            scope.join(timeout);
+
+            if (trainer.resultNow().isEmpty()) {
+                return null;
+            }
+            return new TrainerProfile(trainer.resultNow().get(), subjects.resultNow(), assignments.resultNow(), topics.resultNow());
+        }
+    }
+
+    private Map<Long, List<Subject>> subjectsOfTrainersTeaching(Long subjectId) {
+        Map<Long, List<Long>> subjectIdsByTrainer = new LinkedHashMap<>();
+        if (assignmentIndex.isReady()) {
+            for (long empId : assignmentIndex.trainersOf(subjectId)) {
+                List<Long> ids = new ArrayList<>();
+                for (long id : assignmentIndex.subjectsOf(empId)) {
+                    ids.add(id);
+                }
+                subjectIdsByTrainer.put(empId, ids);
+            }
+        } else {
+            for (AssignmentKey key : trainerSubjectRepository.findKeysOfTrainersTeaching(subjectId)) {
+                subjectIdsByTrainer.computeIfAbsent(key.getEmpId(), k -> new ArrayList<>()).add(key.getSubjectId());
+            }
+        }
+
+        Set<Long> allSubjectIds = new LinkedHashSet<>();
+        subjectIdsByTrainer.values().forEach(allSubjectIds::addAll);
+        Map<Long, Subject> subjectsById = new LinkedHashMap<>();
+        for (Subject subject : batchLoader.subjects(new ArrayList<>(allSubjectIds))) {
+            subjectsById.put(subject.getSubjectId(), subject);
+        }
+
+        Map<Long, List<Subject>> result = new LinkedHashMap<>();
+        subjectIdsByTrainer.forEach((empId, ids) -> result.put(empId,
+                ids.stream().map(subjectsById::get).filter(s -> s != null).toList()));
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fork/join over virtual threads: join waits for every fork up to a deadline and
+     * close cancels whatever is still running, so no task outlives the request.
+     */
+    private final class Scope implements AutoCloseable {
+
+        private final ExecutorCompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        private final List<Future<?>> forks = new ArrayList<>();
+
+        @SuppressWarnings("unchecked")
+        <T> Future<T> fork(Callable<T> task) {
+            Future<T> future = (Future<T>) completion.submit((Callable<Object>) RequestStatistics.propagate(ReadRouting.propagate(task)));
+            forks.add(future);
+            return future;
+        }
+
+        void join(Duration timeout) throws TimeoutException, InterruptedException {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (int i = 0; i < forks.size(); i++) {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new TimeoutException("Composite read did not finish within " + timeout.toMillis() + " ms");
+                }
+                try {
+                    done.get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException runtime) {
+                        throw runtime;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            for (Future<?> fork : forks) {
+                fork.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.CacheStatistics;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TopicRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache in front of the subject, topic and trainer id lookups.
+ * Entries expire after a fixed time and the least used ones are evicted beyond the size limit;
+ * every save and delete path evicts the ids it touches. Missing ids are never cached.
+ * Entries are always loaded from the primary, since a replica may still hold the row as it was
+ * before the write that evicted it.
+ * Hit, miss and eviction counters are also published as cache.* metrics.
+ */
+@Component
+public class EntityCache implements MeterBinder {
+
+    public static final String SUBJECTS = "subjects";
+    public static final String TOPICS = "topics";
+    public static final String TRAINERS = "trainers";
+
+    private final SubjectRepository subjectRepository;
+    private final TopicRepository topicRepository;
+    private final TrainerRepository trainerRepository;
+
+    private final Cache<Long, Subject> subjects;
+    private final Cache<Long, Topic> topics;
+    private final Cache<Long, Trainer> trainers;
+
+    public EntityCache(SubjectRepository subjectRepository, TopicRepository topicRepository, TrainerRepository trainerRepository,
+                       @Value("${trainerapp.cache.max-size:10000}") long maxSize,
+                       @Value("${trainerapp.cache.ttl:10m}") Duration ttl) {
+        this.subjectRepository = subjectRepository;
+        this.topicRepository = topicRepository;
+        this.trainerRepository = trainerRepository;
+        this.subjects = build(maxSize, ttl);
+        this.topics = build(maxSize, ttl);
+        this.trainers = build(maxSize, ttl);
+    }
+
+    private static <V> Cache<Long, V> build(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Subject> findSubject(Long id) {
+        return Optional.ofNullable(subjects.get(id, key -> ReadRouting.onPrimary(() -> subjectRepository.findById(key).orElse(null))));
+    }
+
+    public Optional<Topic> findTopic(Long id) {
+        return Optional.ofNullable(topics.get(id, key -> ReadRouting.onPrimary(() -> topicRepository.findById(key).orElse(null))));
+    }
+
+    public Optional<Trainer> findTrainer(Long id) {
+        return Optional.ofNullable(trainers.get(id, key -> ReadRouting.onPrimary(() -> trainerRepository.findById(key).orElse(null))));
+    }
+
+    /**
+     * Cached subjects for the ids; the misses are loaded with one IN (...) query
+     */
+    public List<Subject> subjects(Collection<Long> ids) {
+        return getAll(subjects, ids, subjectRepository::findAllById, Subject::getSubjectId);
+    }
+
+    public List<Topic> topics(Collection<Long> ids) {
+        return getAll(topics, ids, topicRepository::findAllById, Topic::getTopicId);
+    }
+
+    public List<Trainer> trainers(Collection<Long> ids) {
+        return getAll(trainers, ids, trainerRepository::findAllById, Trainer::getEmpId);
+    }
+
+    private static <V> List<V> getAll(Cache<Long, V> cache, Collection<Long> ids,
+                                      Function<Iterable<Long>, List<V>> load, Function<V, Long> idOf) {
+        Map<Long, V> found = cache.getAll(ids, missing -> {
+            Map<Long, V> loaded = new HashMap<>();
+            for (V row : ReadRouting.onPrimary(() -> load.apply(new ArrayList<>(missing)))) {
+                loaded.put(idOf.apply(row), row);
+            }
+            return loaded;
+        });
+        return new ArrayList<>(found.values());
+    }
+
+    public void evictSubject(Long id) {
+        if (id != null) {
+            subjects.invalidate(id);
+        }
+    }
+
+    public void evictTopic(Long id) {
+        if (id != null) {
+            topics.invalidate(id);
+        }
+    }
+
+    public void evictTrainer(Long id) {
+        if (id != null) {
+            trainers.invalidate(id);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, subjects, SUBJECTS);
+        CaffeineCacheMetrics.monitor(registry, topics, TOPICS);
+        CaffeineCacheMetrics.monitor(registry, trainers, TRAINERS);
+    }
+
+    public List<CacheStatistics> statistics() {
+        return List.of(statistics(SUBJECTS, subjects), statistics(TOPICS, topics), statistics(TRAINERS, trainers));
+    }
+
+    private static CacheStatistics statistics(String name, Cache<Long, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(name, cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.evictionCount(), stats.loadFailureCount(), stats.averageLoadPenalty() / 1_000_000.0);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.trainerapp.service;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Counts every entity Hibernate materializes into the current {@link RequestStatistics};
+ * registered once for the session factory (hibernate.session_factory.interceptor).
+ */
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        RequestStatistics.entityLoaded();
+        return false;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Streams whole tables to an output stream as NDJSON, CSV, or a sequence of CBOR or Smile values.
+ * Rows come from a database cursor and are detached as soon as they are written,
+ * so memory stays flat whatever the table size. Exports are ordered by id and
+ * can be resumed with the last id received.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv"),
+        CBOR("application/cbor-seq"),
+        SMILE("application/x-jackson-smile");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return name().toLowerCase();
+        }
+
+        public static Format parse(String value) {
+            return Format.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    private static final List<Column<Trainer>> TRAINER_COLUMNS = List.of(
+            new Column<>("empId", Trainer::getEmpId),
+            new Column<>("name", Trainer::getName),
+            new Column<>("email", Trainer::getEmail),
+            new Column<>("experience", Trainer::getExperience),
+            new Column<>("address", Trainer::getAddress),
+            new Column<>("format", Trainer::getFormat),
+            new Column<>("mobileNumber", Trainer::getMobileNumber),
+            new Column<>("subjects", Trainer::getSubjects));
+
+    private static final List<Column<Subject>> SUBJECT_COLUMNS = List.of(
+            new Column<>("subjectId", Subject::getSubjectId),
+            new Column<>("subjectName", Subject::getSubjectName),
+            new Column<>("description", Subject::getDescription));
+
+    private static final List<Column<TrainerSubject>> ASSIGNMENT_COLUMNS = List.of(
+            new Column<>("id", TrainerSubject::getId),
+            new Column<>("empId", TrainerSubject::getEmpId),
+            new Column<>("subjectId", TrainerSubject::getSubjectId),
+            new Column<>("trainerName", TrainerSubject::getTrainerName),
+            new Column<>("subjectName", TrainerSubject::getSubjectName));
+
+    private final TrainerRepository trainerRepository;
+    private final SubjectRepository subjectRepository;
+    private final TrainerSubjectRepository trainerSubjectRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(TrainerRepository trainerRepository, SubjectRepository subjectRepository, TrainerSubjectRepository trainerSubjectRepository,
+                         EntityManager entityManager, ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.trainerRepository = trainerRepository;
+        this.subjectRepository = subjectRepository;
+        this.trainerSubjectRepository = trainerSubjectRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void exportTrainers(Format format, long afterId, OutputStream out) {
+        export(() -> trainerRepository.streamAfter(afterId), TRAINER_COLUMNS, format, out);
+    }
+
+    public void exportSubjects(Format format, long afterId, OutputStream out) {
+        export(() -> subjectRepository.streamAfter(afterId), SUBJECT_COLUMNS, format, out);
+    }
+
+    public void exportAssignments(Format format, long afterId, OutputStream out) {
+        export(() -> trainerSubjectRepository.streamAfter(afterId), ASSIGNMENT_COLUMNS, format, out);
+    }
+
+    private <T> void export(Supplier<Stream<T>> query, List<Column<T>> columns, Format format, OutputStream out) {
+        if (format == Format.CBOR || format == Format.SMILE) {
+            exportBinary(query, format == Format.CBOR ? cborMapper : smileMapper, out);
+            return;
+        }
+        readOnlyTransaction.executeWithoutResult(status -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            try (Stream<T> rows = query.get()) {
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, columns.stream().map(Column::name).toList());
+                }
+                Iterator<T> it = rows.iterator();
+                while (it.hasNext()) {
+                    T row = it.next();
+                    if (format == Format.CSV) {
+                        writeCsvRow(writer, columns.stream().map(c -> c.value().apply(row)).toList());
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    // keep the persistence context empty so the export never accumulates entities
+                    entityManager.detach(row);
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * One value per row, back to back: a CBOR sequence (RFC 8742) or a Smile value stream
+     */
+    private <T> void exportBinary(Supplier<Stream<T>> query, ObjectMapper mapper, OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = query.get();
+                 SequenceWriter writer = mapper.writer().without(StreamWriteFeature.AUTO_CLOSE_TARGET).writeValues(new BufferedOutputStream(out, 64 * 1024))) {
+                Iterator<T> it = rows.iterator();
+                while (it.hasNext()) {
+                    T row = it.next();
+                    writer.write(row);
+                    entityManager.detach(row);
+                }
+            }
+        });
+    }
+
+    private static void writeCsvRow(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(csvEscape(value.toString()));
+            }
+        }
+        writer.write('\n');
+    }
+
+    static String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.CursorPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Sparse fieldsets for ?fields=a,b,c on list and detail endpoints.
+ *
+ * The requested attributes are checked against the entity's basic attributes and selected as a
+ * criteria tuple query, so the SELECT reads only those columns and no managed entity is created.
+ * The id is always included, both for keyset paging and so clients can follow up on a row.
+ */
+@Component
+public class FieldProjections {
+
+    private final EntityManager entityManager;
+    private final PageCursors pageCursors;
+
+    public FieldProjections(EntityManager entityManager, PageCursors pageCursors) {
+        this.entityManager = entityManager;
+        this.pageCursors = pageCursors;
+    }
+
+    public <T> CursorPage<Map<String, Object>> page(Class<T> type, String fields, String cursor, Integer limit) {
+        int size = pageCursors.limit(limit);
+        long after = pageCursors.after(cursor);
+        String id = idAttribute(type);
+        List<Map<String, Object>> rows = query(type, fields, (cb, root) -> cb.greaterThan(root.get(id), after), size + 1);
+        return pageCursors.page(rows, size, row -> ((Number) row.get(id)).longValue());
+    }
+
+    public <T> List<Map<String, Object>> all(Class<T> type, String fields) {
+        pageCursors.checkUnpagedAllowed();
+        return query(type, fields, null, null);
+    }
+
+    public <T> Optional<Map<String, Object>> byId(Class<T> type, String fields, Object id) {
+        String idAttribute = idAttribute(type);
+        return query(type, fields, (cb, root) -> cb.equal(root.get(idAttribute), id), 1).stream().findFirst();
+    }
+
+    /**
+     * All rows whose attribute equals the value, ordered by id
+     */
+    public <T> List<Map<String, Object>> where(Class<T> type, String fields, String attribute, Object value) {
+        return query(type, fields, (cb, root) -> cb.equal(root.get(attribute), value), null);
+    }
+
+    private <T> List<Map<String, Object>> query(Class<T> type, String fields,
+                                                BiFunction<CriteriaBuilder, Root<T>, Predicate> where, Integer maxResults) {
+        List<String> attributes = attributes(type, fields);
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<T> root = criteria.from(type);
+
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        criteria.select(cb.tuple(selections.toArray(Selection[]::new))).orderBy(cb.asc(root.get(attributes.get(0))));
+        if (where != null) {
+            criteria.where(where.apply(cb, root));
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(criteria);
+        if (maxResults != null) {
+            query.setMaxResults(maxResults);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Id first, then the requested attributes in request order; unknown names are a 400
+     */
+    private <T> List<String> attributes(Class<T> type, String fields) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        Set<String> known = new LinkedHashSet<>();
+        for (SingularAttribute<? super T, ?> attribute : entity.getSingularAttributes()) {
+            known.add(attribute.getName());
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add(idAttribute(type));
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!known.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown field '" + name + "', expected any of " + known);
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private <T> String idAttribute(Class<T> type) {
+        EntityType<T> entity = entityManager.getMetamodel().entity(type);
+        return entity.getId(entity.getIdType().getJavaType()).getName();
+    }
+}
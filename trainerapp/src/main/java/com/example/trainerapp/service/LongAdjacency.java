@@ -0,0 +1,233 @@
+package com.example.trainerapp.service;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * One direction of a many-to-many relation between positive long ids, kept in primitive form:
+ * an open-addressing table of keys, each pointing at a sorted long[] of its neighbours.
+ * No boxing, so a million edges cost roughly 8 bytes per stored id plus per-key array headers.
+ *
+ * Not thread-safe; {@link AssignmentIndex} guards it with a read/write lock.
+ */
+final class LongAdjacency {
+
+    private static final long FREE = 0L;
+    private static final long[] NONE = new long[0];
+
+    private long[] keys;
+    private long[][] neighbours;
+    private int[] degrees;
+    // occupied slots, including keys whose last edge was removed
+    private int used;
+    // keys with at least one edge
+    private int live;
+    private long edges;
+
+    LongAdjacency() {
+        this(1024);
+    }
+
+    LongAdjacency(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedKeys * 2 - 1)) << 1;
+        keys = new long[capacity];
+        neighbours = new long[capacity][];
+        degrees = new int[capacity];
+    }
+
+    boolean contains(long key, long value) {
+        int slot = find(key);
+        return slot >= 0 && Arrays.binarySearch(neighbours[slot], 0, degrees[slot], value) >= 0;
+    }
+
+    int degree(long key) {
+        int slot = find(key);
+        return slot < 0 ? 0 : degrees[slot];
+    }
+
+    long[] neighbours(long key) {
+        int slot = find(key);
+        return slot < 0 ? NONE : Arrays.copyOf(neighbours[slot], degrees[slot]);
+    }
+
+    long edgeCount() {
+        return edges;
+    }
+
+    int keyCount() {
+        return live;
+    }
+
+    int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * Visit every key that has at least one edge, in no particular order
+     */
+    void forEachKey(LongConsumer action) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE && degrees[slot] > 0) {
+                action.accept(keys[slot]);
+            }
+        }
+    }
+
+    boolean add(long key, long value) {
+        int slot = slotFor(key);
+        long[] list = neighbours[slot];
+        int degree = degrees[slot];
+        // loads arrive in ascending order, so appending is the common case
+        int at = degree == 0 || list[degree - 1] < value ? degree : Arrays.binarySearch(list, 0, degree, value);
+        if (at >= 0 && at < degree) {
+            return false;
+        }
+        at = at < 0 ? -at - 1 : at;
+        if (degree == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, degree + (degree >> 1)));
+            neighbours[slot] = list;
+        }
+        System.arraycopy(list, at, list, at + 1, degree - at);
+        list[at] = value;
+        degrees[slot] = degree + 1;
+        if (degree == 0) {
+            live++;
+        }
+        edges++;
+        return true;
+    }
+
+    boolean remove(long key, long value) {
+        int slot = find(key);
+        if (slot < 0) {
+            return false;
+        }
+        long[] list = neighbours[slot];
+        int degree = degrees[slot];
+        int at = Arrays.binarySearch(list, 0, degree, value);
+        if (at < 0) {
+            return false;
+        }
+        System.arraycopy(list, at + 1, list, at, degree - at - 1);
+        degrees[slot] = degree - 1;
+        if (degree == 1) {
+            live--;
+        }
+        edges--;
+        return true;
+    }
+
+    /**
+     * Drop a key with all its edges, returning the neighbours it had
+     */
+    long[] removeKey(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return NONE;
+        }
+        long[] removed = Arrays.copyOf(neighbours[slot], degrees[slot]);
+        if (degrees[slot] > 0) {
+            live--;
+        }
+        edges -= degrees[slot];
+        degrees[slot] = 0;
+        neighbours[slot] = NONE;
+        return removed;
+    }
+
+    /**
+     * Shrink every neighbour array to its exact size (after a bulk load)
+     */
+    void trim() {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (neighbours[slot] != null && neighbours[slot].length != degrees[slot]) {
+                neighbours[slot] = degrees[slot] == 0 ? NONE : Arrays.copyOf(neighbours[slot], degrees[slot]);
+            }
+        }
+    }
+
+    /**
+     * Approximate retained heap, assuming compressed oops (16 byte array headers, 4 byte references)
+     */
+    long estimatedBytes() {
+        long bytes = 16L + 8L * keys.length + 16L + 4L * neighbours.length + 16L + 4L * degrees.length;
+        for (long[] list : neighbours) {
+            if (list != null && list != NONE) {
+                bytes += 16L + 8L * list.length;
+            }
+        }
+        return bytes;
+    }
+
+    private int find(long key) {
+        if (key == FREE) {
+            return -1;
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            if (keys[slot] == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    private int slotFor(long key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("ids must be non-zero");
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            return slot;
+        }
+        if ((used + 1) * 4L > keys.length * 3L) {
+            // sized for the live keys only: slots of removed keys are reclaimed instead of doubling past them
+            rehash(Math.max(16, nextPowerOfTwo(live * 4 / 3 + 1)));
+        }
+        int mask = keys.length - 1;
+        slot = mix(key) & mask;
+        while (keys[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        neighbours[slot] = NONE;
+        used++;
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[][] oldNeighbours = neighbours;
+        int[] oldDegrees = degrees;
+        keys = new long[capacity];
+        neighbours = new long[capacity][];
+        degrees = new int[capacity];
+        used = 0;
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            // keys left without edges by removeKey/remove are dropped here
+            if (oldKeys[i] == FREE || oldDegrees[i] == 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            neighbours[slot] = oldNeighbours[i];
+            degrees[slot] = oldDegrees[i];
+            used++;
+        }
+    }
+
+    private static int nextPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.NameChange;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.repository.NameChangeRepository;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries trainer and subject renames into the trainerName / subjectName copies on trainer_subject.
+ *
+ * A rename only writes a name_change_outbox row next to the entity update, in the same
+ * transaction, so renames stay cheap however many assignments they affect. This worker picks
+ * up pending rows on a fixed delay and rewrites the copies in short UPDATE ... LIMIT batches;
+ * an outbox row is deleted only after its entity has no stale copy left, so a crash or restart
+ * resumes where it stopped.
+ *
+ * The copies are set to the entity's committed name rather than the name in the outbox row:
+ * outbox ids are taken at insert, so renames can commit out of id order, and every pending row
+ * of an entity collapses into its current name. Only the rows a run has read are deleted; a
+ * rename committing meanwhile leaves its own row for the next run.
+ *
+ * trainerapp.names.propagation.lag is the age in seconds of the oldest pending rename. It and
+ * .pending are counted on the first run, so they read NaN until the worker has started.
+ */
+@Component
+public class NameChangePropagator implements MeterBinder {
+
+    private final NameChangeRepository nameChangeRepository;
+    private final TrainerSubjectRepository trainerSubjectRepository;
+    private final TrainerRepository trainerRepository;
+    private final SubjectRepository subjectRepository;
+    private final int batchSize;
+    private final int changesPerRun;
+
+    // creation time of the oldest pending rename, 0 when none is pending
+    private final AtomicLong oldestPending = new AtomicLong();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong rowsRewritten = new AtomicLong();
+    private volatile boolean counted;
+
+    public NameChangePropagator(NameChangeRepository nameChangeRepository, TrainerSubjectRepository trainerSubjectRepository,
+                                TrainerRepository trainerRepository, SubjectRepository subjectRepository,
+                                @Value("${trainerapp.names.batch-size:1000}") int batchSize,
+                                @Value("${trainerapp.names.changes-per-run:100}") int changesPerRun) {
+        this.nameChangeRepository = nameChangeRepository;
+        this.trainerSubjectRepository = trainerSubjectRepository;
+        this.trainerRepository = trainerRepository;
+        this.subjectRepository = subjectRepository;
+        this.batchSize = batchSize;
+        this.changesPerRun = changesPerRun;
+    }
+
+    /**
+     * Record a rename; must run inside the transaction that renames the entity
+     */
+    public void record(String entityType, Long entityId, String newName) {
+        NameChange change = new NameChange();
+        change.setEntityType(entityType);
+        change.setEntityId(entityId);
+        change.setNewName(newName);
+        change.setCreatedAt(System.currentTimeMillis());
+        nameChangeRepository.save(change);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                oldestPending.compareAndSet(0L, change.getCreatedAt());
+                pending.incrementAndGet();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${trainerapp.names.propagation-interval:1s}")
+    public void propagate() {
+        List<NameChange> changes = nameChangeRepository.findAllByOrderByIdAsc(Limit.of(changesPerRun));
+        // outbox row ids per entity, oldest entity first
+        Map<String, List<Long>> idsByEntity = new LinkedHashMap<>();
+        Map<String, NameChange> firstByEntity = new LinkedHashMap<>();
+        for (NameChange change : changes) {
+            String entity = change.getEntityType() + ':' + change.getEntityId();
+            idsByEntity.computeIfAbsent(entity, key -> new ArrayList<>()).add(change.getId());
+            firstByEntity.putIfAbsent(entity, change);
+        }
+        for (Map.Entry<String, NameChange> entry : firstByEntity.entrySet()) {
+            NameChange change = entry.getValue();
+            boolean trainer = NameChange.TRAINER.equals(change.getEntityType());
+            // a deleted entity took its assignments along, so there is nothing left to rewrite
+            Optional<String> name = trainer
+                    ? trainerRepository.findById(change.getEntityId()).map(Trainer::getName)
+                    : subjectRepository.findById(change.getEntityId()).map(Subject::getSubjectName);
+            if (name.isPresent()) {
+                int rewritten;
+                do {
+                    rewritten = trainer
+                            ? trainerSubjectRepository.renameTrainer(change.getEntityId(), name.get(), batchSize)
+                            : trainerSubjectRepository.renameSubject(change.getEntityId(), name.get(), batchSize);
+                    rowsRewritten.addAndGet(rewritten);
+                } while (rewritten == batchSize);
+            }
+            nameChangeRepository.deletePropagated(idsByEntity.get(entry.getKey()));
+        }
+        if (!counted || !changes.isEmpty() || pending.get() != 0) {
+            oldestPending.set(nameChangeRepository.findOldestCreatedAt().orElse(0L));
+            pending.set(nameChangeRepository.count());
+            counted = true;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trainerapp.names.propagation.lag", this, propagator -> {
+                    if (!propagator.counted) {
+                        return Double.NaN;
+                    }
+                    long since = propagator.oldestPending.get();
+                    return since == 0L ? 0.0 : Math.max(0L, System.currentTimeMillis() - since) / 1000.0;
+                })
+                .description("Age of the oldest rename not yet copied into trainer_subject")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("trainerapp.names.propagation.pending", this, propagator -> propagator.counted ? propagator.pending.get() : Double.NaN)
+                .description("Renames waiting in the outbox")
+                .register(registry);
+        FunctionCounter.builder("trainerapp.names.propagation.rows", rowsRewritten, AtomicLong::get)
+                .description("trainer_subject rows rewritten with a new name")
+                .register(registry);
+    }
+}
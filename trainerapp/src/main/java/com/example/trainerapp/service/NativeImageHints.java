@@ -0,0 +1,38 @@
+package com.example.trainerapp.service;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Reflection the native image (mvn -Pnative native:compile) cannot infer; read at build time
+ * only, a JVM run never uses it.
+ *
+ * Many controllers return ResponseEntity&lt;?&gt;, which hides the JSON types from Spring's AOT
+ * processing, so every type of the entity package is registered for binding. Hibernate creates
+ * the statement listener and the entity-load interceptor from their class names in
+ * application.properties.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeImageHints.class)
+public class NativeImageHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter((reader, factory) -> true);
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.example.trainerapp.entity")) {
+            bindings.registerReflectionHints(hints.reflection(),
+                    ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader));
+        }
+        hints.reflection().registerType(StatementCountingListener.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(EntityLoadCountingInterceptor.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
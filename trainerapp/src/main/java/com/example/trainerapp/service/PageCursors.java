@@ -0,0 +1,93 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Keyset pagination helpers shared by the list endpoints.
+ * A cursor is an opaque token wrapping the last primary key of the previous page;
+ * the next page is simply "id > cursor ORDER BY id LIMIT n".
+ */
+@Component
+public class PageCursors {
+
+    private static final String PREFIX = "k1:";
+
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final boolean allowUnpaged;
+
+    public PageCursors(@Value("${trainerapp.pagination.default-limit:50}") int defaultLimit,
+                       @Value("${trainerapp.pagination.max-limit:500}") int maxLimit,
+                       @Value("${trainerapp.pagination.allow-unpaged:true}") boolean allowUnpaged) {
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.allowUnpaged = allowUnpaged;
+    }
+
+    /**
+     * Clamp the requested page size to [1, max-limit]
+     */
+    public int limit(Integer requested) {
+        if (requested == null) {
+            return defaultLimit;
+        }
+        return Math.max(1, Math.min(requested, maxLimit));
+    }
+
+    /**
+     * One extra row is fetched to know whether another page follows
+     */
+    public Limit fetchLimit(int limit) {
+        return Limit.of(limit + 1);
+    }
+
+    /**
+     * Decode a cursor into the last seen id (0 for the first page)
+     */
+    public long after(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(decoded);
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public <T> CursorPage<T> page(List<T> rows, int limit, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, limit);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, encode(idOf.apply(items.get(limit - 1))), limit);
+    }
+
+    /**
+     * Unpaged reads of a whole table are an explicit opt-in and can be switched off entirely
+     */
+    public void checkUnpagedAllowed() {
+        if (!allowUnpaged) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unpaged listing is disabled");
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.trainerapp.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas, enabled by listing them in trainerapp.datasource.replica-urls.
+ *
+ * The primary pool is built from spring.datasource.* exactly as Boot would build it, one Hikari
+ * pool is opened per replica URL, and the DataSource handed to JPA and JdbcTemplate routes each
+ * connection through {@link ReadRouting}. Without replica URLs none of this is registered and
+ * Boot's single datasource is used as before.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("trainerapp.datasource.replica-urls")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(@Qualifier("primaryDataSource") DataSource primary,
+                                   DataSourceProperties properties,
+                                   @Value("${trainerapp.datasource.replica-urls}") List<String> urls,
+                                   @Value("${trainerapp.datasource.replica-username:}") String username,
+                                   @Value("${trainerapp.datasource.replica-password:}") String password,
+                                   @Value("${trainerapp.datasource.replica-connection-timeout:2s}") Duration connectionTimeout,
+                                   @Value("${trainerapp.datasource.replica-retry-after:10s}") Duration retryAfter) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            replica.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replica.setReadOnly(true);
+            // a replica that is down at startup must not keep the application from starting
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        return new ReplicaPool(primary, replicas, retryAfter);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaPool replicaPool) {
+        return ReadWriteRoutingDataSource.create(primary, replicaPool);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.trainerapp.service;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * Decides, when a connection is actually needed, whether it may come from a read replica.
+ *
+ * A request filter marks the thread as replica-eligible for safe requests (GET, HEAD) from clients
+ * outside their read-your-writes window. Within such a request, work outside a transaction and
+ * read-only transactions (Spring Data query methods, readOnly = true) read from a replica; any
+ * read-write transaction still goes to the primary. Threads not marked by the filter, such as
+ * startup loads and scheduled jobs, always use the primary.
+ *
+ * Reads whose result outlives the request must not see a lagging replica: cache fills would keep
+ * serving the pre-write state after the writer's read-your-writes window, and a list answered
+ * with a newer ETag than its data would be confirmed with 304 until the next write. Those run
+ * through {@link #onPrimary}.
+ */
+public final class ReadRouting {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void allowReplica(boolean allowed) {
+        REPLICA_ALLOWED.set(allowed);
+    }
+
+    public static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    public static Target current() {
+        if (!Boolean.TRUE.equals(REPLICA_ALLOWED.get())) {
+            return Target.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        return Target.REPLICA;
+    }
+
+    /**
+     * Run the task on the primary, also within a replica-eligible request
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        Boolean allowed = REPLICA_ALLOWED.get();
+        if (!Boolean.TRUE.equals(allowed)) {
+            return task.get();
+        }
+        REPLICA_ALLOWED.set(false);
+        try {
+            return task.get();
+        } finally {
+            REPLICA_ALLOWED.set(allowed);
+        }
+    }
+
+    /**
+     * Run the task with the caller's routing, for work fanned out to other threads
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        Boolean allowed = REPLICA_ALLOWED.get();
+        if (allowed == null) {
+            return task;
+        }
+        return () -> {
+            Boolean previous = REPLICA_ALLOWED.get();
+            REPLICA_ALLOWED.set(allowed);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    REPLICA_ALLOWED.remove();
+                } else {
+                    REPLICA_ALLOWED.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.trainerapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Primary or replica pool, chosen per connection by {@link ReadRouting}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    /**
+     * The routing DataSource behind a lazy proxy: transaction managers ask for a connection when
+     * the transaction begins, before its read-only flag is visible, so the physical connection
+     * and with it the routing decision are deferred to the first statement. The proxy's default
+     * auto-commit and isolation are taken from the primary up front rather than from whichever
+     * target the first connection happens to be routed to.
+     */
+    public static DataSource create(DataSource primary, DataSource replicas) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(ReadRouting.Target.PRIMARY, primary, ReadRouting.Target.REPLICA, replicas));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(routing);
+        try (Connection connection = primary.getConnection()) {
+            proxy.setDefaultAutoCommit(connection.getAutoCommit());
+            proxy.setDefaultTransactionIsolation(connection.getTransactionIsolation());
+        } catch (SQLException e) {
+            // primary not reachable yet: the proxy determines the defaults on first use
+            log.warn("Could not read connection defaults from the primary: {}", e.getMessage());
+        }
+        return proxy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ReadRouting.current();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.trainerapp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The read replicas as one DataSource: connections are taken round-robin, a replica that fails
+ * to hand out a connection is skipped for the retry period, and when no replica is available
+ * the connection comes from the primary instead, so reads degrade to the primary rather than fail.
+ */
+public class ReplicaPool extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryAfterMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    // per replica: time (epoch millis) until which it is skipped
+    private final AtomicLongArray downUntil;
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaPool(DataSource primary, List<DataSource> replicas, Duration retryAfter) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryAfterMillis = retryAfter.toMillis();
+        this.downUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = (start + i) % replicas.size();
+            if (downUntil.get(replica) > System.currentTimeMillis()) {
+                continue;
+            }
+            try {
+                Connection connection = replicas.get(replica).getConnection();
+                downUntil.set(replica, 0L);
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                // pools report an unreachable database as either
+                downUntil.set(replica, System.currentTimeMillis() + retryAfterMillis);
+                log.warn("Read replica {} unavailable, using the primary for {} ms: {}",
+                        replica + 1, retryAfterMillis, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica credentials are configured per pool");
+    }
+
+    public int available() {
+        int available = 0;
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < replicas.size(); i++) {
+            if (downUntil.get(i) <= now) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    public long fallbacks() {
+        return fallbacks.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("trainerapp.datasource.replicas.available", this, ReplicaPool::available)
+                .description("Read replicas currently handing out connections")
+                .register(registry);
+        FunctionCounter.builder("trainerapp.datasource.replica.fallbacks", fallbacks, LongAdder::doubleValue)
+                .description("Replica reads served by the primary because no replica was available")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.trainerapp.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Database work done on behalf of one HTTP request: SQL statements executed (a JDBC batch
+ * counts once), time spent in them, entities loaded and persistence-context flushes.
+ *
+ * The request filter binds an instance to the request thread; the Hibernate session listener
+ * and interceptor count into whatever instance is bound to the thread they run on. Work handed
+ * to other threads is attributed to the request by wrapping it with {@link #propagate}.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder statementNanos = new LongAdder();
+    private final LongAdder entityLoads = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    /**
+     * Bind a fresh instance to the calling thread; pair with {@link #end()}
+     */
+    public static RequestStatistics begin() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Run the task with the caller's statistics bound, so its queries count towards the same request
+     */
+    public static <T> Callable<T> propagate(Callable<T> task) {
+        RequestStatistics owner = CURRENT.get();
+        if (owner == null) {
+            return task;
+        }
+        return () -> {
+            RequestStatistics previous = CURRENT.get();
+            CURRENT.set(owner);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    static void statementExecuted(long nanos) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements.increment();
+            statistics.statementNanos.add(nanos);
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads.increment();
+        }
+    }
+
+    static void flushed() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.flushes.increment();
+        }
+    }
+
+    public long statements() {
+        return statements.sum();
+    }
+
+    public long statementNanos() {
+        return statementNanos.sum();
+    }
+
+    public long entityLoads() {
+        return entityLoads.sum();
+    }
+
+    public long flushes() {
+        return flushes.sum();
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.SearchHit;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TopicRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over trainer, subject and topic names and descriptions.
+ *
+ * Terms live in a sorted map so a prefix is a range scan; typos are matched with a bounded
+ * edit distance against terms sharing the first letter. Every query term must match
+ * (exactly, as a prefix or fuzzily) and documents are ranked by the summed match quality
+ * weighted by field. The services keep it current on every save and delete.
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    public static final String TRAINER = "trainer";
+    public static final String SUBJECT = "subject";
+    public static final String TOPIC = "topic";
+
+    private static final float NAME_WEIGHT = 2.0f;
+    private static final float EMAIL_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private final TrainerRepository trainerRepository;
+    private final SubjectRepository subjectRepository;
+    private final TopicRepository topicRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<DocKey, Float>> terms = new TreeMap<>();
+    private final Map<DocKey, Doc> docs = new HashMap<>();
+
+    // while the startup load runs, live writes win over the rows it read earlier
+    private Set<DocKey> touchedDuringLoad;
+
+    public SearchIndex(TrainerRepository trainerRepository, SubjectRepository subjectRepository, TopicRepository topicRepository) {
+        this.trainerRepository = trainerRepository;
+        this.subjectRepository = subjectRepository;
+        this.topicRepository = topicRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            trainerRepository.findAll().forEach(t -> put(trainerDoc(t), true));
+            subjectRepository.findAll().forEach(s -> put(subjectDoc(s), true));
+            topicRepository.findAll().forEach(t -> put(topicDoc(t), true));
+        } finally {
+            lock.writeLock().lock();
+            try {
+                touchedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Search index loaded: {} documents", size());
+    }
+
+    public void index(Trainer trainer) {
+        put(trainerDoc(trainer), false);
+    }
+
+    public void index(Subject subject) {
+        put(subjectDoc(subject), false);
+    }
+
+    public void index(Topic topic) {
+        put(topicDoc(topic), false);
+    }
+
+    public void remove(String type, Long id) {
+        if (id == null) {
+            return;
+        }
+        DocKey key = new DocKey(type, id);
+        lock.writeLock().lock();
+        try {
+            unindex(key);
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked matches for a free-text query, optionally restricted to one document type
+     */
+    public List<SearchHit> search(String query, String type, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<DocKey, Double> scores = null;
+            for (String token : tokens) {
+                Map<DocKey, Double> tokenScores = matchToken(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<DocKey, Double> both = new HashMap<>();
+                    for (Map.Entry<DocKey, Double> e : scores.entrySet()) {
+                        Double other = tokenScores.get(e.getKey());
+                        if (other != null) {
+                            both.put(e.getKey(), e.getValue() + other);
+                        }
+                    }
+                    scores = both;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (Map.Entry<DocKey, Double> e : scores.entrySet()) {
+                if (type == null || type.equals(e.getKey().type())) {
+                    Doc doc = docs.get(e.getKey());
+                    hits.add(new SearchHit(doc.key().type(), doc.key().id(), doc.title(), doc.detail(), e.getValue()));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(SearchHit::getScore).reversed()
+                    .thenComparing(SearchHit::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<DocKey, Double> matchToken(String token) {
+        Map<DocKey, Double> scores = new HashMap<>();
+
+        // exact and prefix matches
+        for (Map.Entry<String, Map<DocKey, Float>> term : terms.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+            double quality = term.getKey().length() == token.length() ? 1.0
+                    : 0.5 + 0.3 * token.length() / term.getKey().length();
+            addPostings(scores, term.getValue(), quality);
+        }
+
+        // typo tolerance: bounded edit distance against terms with the same first letter
+        if (token.length() >= 3) {
+            int maxEdits = token.length() >= 6 ? 2 : 1;
+            String first = token.substring(0, 1);
+            for (Map.Entry<String, Map<DocKey, Float>> term : terms.subMap(first, true, first + Character.MAX_VALUE, true).entrySet()) {
+                String candidate = term.getKey();
+                if (candidate.startsWith(token)) {
+                    continue; // already scored as a prefix match
+                }
+                double quality = 0;
+                if (Math.abs(candidate.length() - token.length()) <= maxEdits) {
+                    int edits = editDistance(token, candidate, maxEdits);
+                    if (edits <= maxEdits) {
+                        quality = 0.45 / edits;
+                    }
+                }
+                if (quality == 0 && candidate.length() > token.length()) {
+                    // typo while still typing: compare against the candidate's prefix
+                    int edits = editDistance(token, candidate.substring(0, token.length()), maxEdits);
+                    if (edits <= maxEdits) {
+                        quality = 0.35 / edits;
+                    }
+                }
+                if (quality > 0) {
+                    addPostings(scores, term.getValue(), quality);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private static void addPostings(Map<DocKey, Double> scores, Map<DocKey, Float> postings, double quality) {
+        for (Map.Entry<DocKey, Float> posting : postings.entrySet()) {
+            scores.merge(posting.getKey(), quality * posting.getValue(), Math::max);
+        }
+    }
+
+    /**
+     * Optimal string alignment distance, giving up early once it exceeds max
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+        return prev[b.length()];
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void put(Doc doc, boolean fromLoad) {
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                if (fromLoad && touchedDuringLoad.contains(doc.key())) {
+                    return;
+                }
+                if (!fromLoad) {
+                    touchedDuringLoad.add(doc.key());
+                }
+            }
+            unindex(doc.key());
+            docs.put(doc.key(), doc);
+            for (Map.Entry<String, Float> term : doc.terms().entrySet()) {
+                terms.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(doc.key(), term.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unindex(DocKey key) {
+        Doc old = docs.remove(key);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms().keySet()) {
+            Map<DocKey, Float> postings = terms.get(term);
+            if (postings != null) {
+                postings.remove(key);
+                if (postings.isEmpty()) {
+                    terms.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Doc trainerDoc(Trainer trainer) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, trainer.getName(), NAME_WEIGHT);
+        addTerms(terms, trainer.getEmail(), EMAIL_WEIGHT);
+        return new Doc(new DocKey(TRAINER, trainer.getEmpId()), trainer.getName(), trainer.getEmail(), terms);
+    }
+
+    private static Doc subjectDoc(Subject subject) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, subject.getSubjectName(), NAME_WEIGHT);
+        addTerms(terms, subject.getDescription(), DESCRIPTION_WEIGHT);
+        return new Doc(new DocKey(SUBJECT, subject.getSubjectId()), subject.getSubjectName(), subject.getDescription(), terms);
+    }
+
+    private static Doc topicDoc(Topic topic) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, topic.getTopicName(), NAME_WEIGHT);
+        addTerms(terms, topic.getDescription(), DESCRIPTION_WEIGHT);
+        return new Doc(new DocKey(TOPIC, topic.getTopicId()), topic.getTopicName(), topic.getDescription(), terms);
+    }
+
+    private static void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    private record DocKey(String type, long id) {
+    }
+
+    private record Doc(DocKey key, String title, String detail, Map<String, Float> terms) {
+    }
+}
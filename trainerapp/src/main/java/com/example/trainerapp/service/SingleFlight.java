@@ -0,0 +1,150 @@
+package com.example.trainerapp.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing for per-subject reads: concurrent calls of the same method for the same
+ * subject share one database load, and every caller gets its result (or its exception).
+ * Nothing is kept once the load finishes, so this only helps bursts of identical requests.
+ *
+ * Writes fence a subject: a load that started before the write committed is not shared with
+ * callers arriving after it, who start a fresh load instead. Subjects are fenced by stripe, so
+ * a write can occasionally cost an unrelated subject one extra load; {@link #fenceAll()} is for
+ * writes whose affected subjects are not known cheaply (trainer and topic edits, imports).
+ *
+ * Loads are shared only between callers with the same {@link ReadRouting#current()} target:
+ * a caller pinned to the primary after its own write never waits on a replica load.
+ *
+ * Metrics: trainerapp.singleflight.loads, .joined and .in-flight.
+ */
+@Component
+public class SingleFlight implements MeterBinder {
+
+    private static final int STRIPES = 1024;
+
+    private final Map<Key, Flight<?>> flights = new ConcurrentHashMap<>();
+    private final AtomicLongArray subjectGenerations = new AtomicLongArray(STRIPES);
+    private final AtomicLong globalGeneration = new AtomicLong();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder joined = new LongAdder();
+
+    /**
+     * Result of loader for the subject, shared with concurrent callers of the same method
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T load(String method, long subjectId, Supplier<T> loader) {
+        Key key = new Key(method, subjectId, ReadRouting.current());
+        Flight<T> mine = new Flight<>(subjectGenerations.get(stripe(subjectId)), globalGeneration.get());
+        while (true) {
+            Flight<?> existing = flights.putIfAbsent(key, mine);
+            if (existing == null) {
+                break;
+            }
+            if (existing.subjectGeneration == mine.subjectGeneration && existing.globalGeneration == mine.globalGeneration) {
+                joined.increment();
+                return ((Flight<T>) existing).await();
+            }
+            // started before a fencing write: leave it to its own callers
+            if (flights.replace(key, existing, mine)) {
+                break;
+            }
+        }
+
+        loads.increment();
+        try {
+            T value = loader.get();
+            mine.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, mine);
+        }
+    }
+
+    /**
+     * Stop sharing loads of the subject that are already running; inside a transaction this
+     * happens after commit, so loads started before then cannot hand out the pre-write state
+     */
+    public void fence(long subjectId) {
+        afterCommit(() -> subjectGenerations.incrementAndGet(stripe(subjectId)));
+    }
+
+    public void fenceAll() {
+        afterCommit(globalGeneration::incrementAndGet);
+    }
+
+    private static void afterCommit(Runnable fence) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    fence.run();
+                }
+            });
+        } else {
+            fence.run();
+        }
+    }
+
+    private static int stripe(long subjectId) {
+        return Long.hashCode(subjectId * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("trainerapp.singleflight.loads", loads, LongAdder::doubleValue)
+                .description("Coalesced reads that went to the database")
+                .register(registry);
+        FunctionCounter.builder("trainerapp.singleflight.joined", joined, LongAdder::doubleValue)
+                .description("Reads answered by joining a load already in flight")
+                .register(registry);
+        Gauge.builder("trainerapp.singleflight.in-flight", flights, Map::size)
+                .description("Loads currently in flight")
+                .register(registry);
+    }
+
+    private record Key(String method, long subjectId, ReadRouting.Target target) {
+    }
+
+    private static final class Flight<T> {
+        private final long subjectGeneration;
+        private final long globalGeneration;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Flight(long subjectGeneration, long globalGeneration) {
+            this.subjectGeneration = subjectGeneration;
+            this.globalGeneration = globalGeneration;
+        }
+
+        T await() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
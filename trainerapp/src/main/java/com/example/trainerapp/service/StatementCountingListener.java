@@ -0,0 +1,39 @@
+package com.example.trainerapp.service;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Counts each statement a Hibernate session executes into the current {@link RequestStatistics}.
+ * Hibernate creates one instance per session (hibernate.session.events.auto), and a session is
+ * only ever used by one thread at a time, so the start timestamps need no synchronization.
+ */
+public class StatementCountingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics.statementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestStatistics.statementExecuted(System.nanoTime() - batchStart);
+    }
+
+    @Override
+    public void flushStart() {
+        RequestStatistics.flushed();
+    }
+}
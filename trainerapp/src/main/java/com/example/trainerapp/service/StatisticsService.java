@@ -0,0 +1,85 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.AssignmentStatistics;
+import com.example.trainerapp.entity.TopicWorkload;
+import com.example.trainerapp.entity.WorkloadCount;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Workload figures for every trainer, subject and topic, computed from three GROUP BY
+ * queries. The result is kept for a short time so a dashboard can poll it freely.
+ */
+@Service
+public class StatisticsService {
+
+    private final TrainerSubjectRepository trainerSubjectRepository;
+    private final Duration maxAge;
+
+    private volatile AssignmentStatistics snapshot;
+
+    public StatisticsService(TrainerSubjectRepository trainerSubjectRepository,
+                             @Value("${trainerapp.stats.max-age:5s}") Duration maxAge) {
+        this.trainerSubjectRepository = trainerSubjectRepository;
+        this.maxAge = maxAge;
+    }
+
+    public AssignmentStatistics getStatistics() {
+        AssignmentStatistics current = snapshot;
+        if (current != null && current.getGeneratedAt().plus(maxAge).isAfter(Instant.now())) {
+            return current;
+        }
+        synchronized (this) {
+            // another caller may have refreshed it while we waited
+            current = snapshot;
+            if (current == null || !current.getGeneratedAt().plus(maxAge).isAfter(Instant.now())) {
+                current = compute();
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    private AssignmentStatistics compute() {
+        List<WorkloadCount> trainers = trainerSubjectRepository.countAssignmentsPerTrainer();
+        List<WorkloadCount> subjects = trainerSubjectRepository.countAssignmentsPerSubject();
+        List<TopicWorkload> topics = trainerSubjectRepository.countWorkloadPerTopic();
+
+        AssignmentStatistics stats = new AssignmentStatistics();
+        stats.setGeneratedAt(Instant.now());
+        stats.setTrainers(trainers);
+        stats.setSubjects(subjects);
+        stats.setTopics(topics);
+
+        stats.setTotalTrainers(trainers.size());
+        stats.setTotalSubjects(subjects.size());
+        stats.setTotalTopics(topics.size());
+        stats.setTotalAssignments(trainers.stream().mapToLong(WorkloadCount::getCount).sum());
+
+        stats.setSubjectsPerTrainerDistribution(distribution(trainers));
+        stats.setTrainersPerSubjectDistribution(distribution(subjects));
+        stats.setTrainersWithoutSubjects(stats.getSubjectsPerTrainerDistribution().getOrDefault(0L, 0L));
+        stats.setSubjectsWithoutTrainers(stats.getTrainersPerSubjectDistribution().getOrDefault(0L, 0L));
+        stats.setTopicsWithoutTrainers(topics.stream().filter(t -> t.getTrainerCount() == 0).count());
+
+        stats.setAverageSubjectsPerTrainer(trainers.isEmpty() ? 0 : (double) stats.getTotalAssignments() / trainers.size());
+        stats.setAverageTrainersPerSubject(subjects.isEmpty() ? 0
+                : (double) subjects.stream().mapToLong(WorkloadCount::getCount).sum() / subjects.size());
+        return stats;
+    }
+
+    private static Map<Long, Long> distribution(List<WorkloadCount> counts) {
+        Map<Long, Long> histogram = new TreeMap<>();
+        for (WorkloadCount count : counts) {
+            histogram.merge(count.getCount(), 1L, Long::sum);
+        }
+        return histogram;
+    }
+}
@@ -0,0 +1,505 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.IdName;
+import com.example.trainerapp.entity.ImportError;
+import com.example.trainerapp.entity.ImportReport;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.SubjectRequest;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.repository.TopicRepository;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streaming import of subjects with their topics, from a JSON array (or NDJSON) of
+ * SubjectRequest objects or from CSV with the columns subjectName, description and topics,
+ * where topics holds topic names separated by ';'.
+ *
+ * Records are parsed one at a time and written in chunks: per chunk the referenced topics are
+ * resolved with IN queries, and new topics, subjects and subject_topic links are inserted as
+ * three JDBC batches in one transaction. Topics are matched by exact name against the database
+ * and against everything created earlier in the same file, so each name is inserted once.
+ * An invalid record is reported with its row number and skipped; chunks that were already
+ * written stay committed if a later one fails. A chunk the database rejects is written again
+ * row by row, so only the offending rows are reported.
+ */
+@Service
+public class SubjectImportService {
+
+    static final int IMPORT_CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    static final String TOPIC_SEPARATOR = ";";
+    // VARCHAR(255) of the name and description columns
+    static final int MAX_TEXT_LENGTH = 255;
+
+    private static final String INSERT_TOPIC_SQL = "INSERT INTO topic (topic_name, description) VALUES (?, ?)";
+    private static final String INSERT_SUBJECT_SQL = "INSERT INTO subject (subject_name, description) VALUES (?, ?)";
+    private static final String INSERT_LINK_SQL = "INSERT INTO subject_topic (subject_id, topic_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TopicRepository topicRepository;
+    private final ObjectMapper objectMapper;
+    private final SearchIndex searchIndex;
+    private final CatalogVersions catalogVersions;
+    private final TrainerTopicMatrix trainerTopicMatrix;
+    private final SingleFlight singleFlight;
+
+    public SubjectImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, TopicRepository topicRepository,
+                                ObjectMapper objectMapper, SearchIndex searchIndex, CatalogVersions catalogVersions,
+                                TrainerTopicMatrix trainerTopicMatrix, SingleFlight singleFlight) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.topicRepository = topicRepository;
+        this.objectMapper = objectMapper;
+        this.searchIndex = searchIndex;
+        this.catalogVersions = catalogVersions;
+        this.trainerTopicMatrix = trainerTopicMatrix;
+        this.singleFlight = singleFlight;
+    }
+
+    public ImportReport importJson(InputStream in) {
+        Import run = new Import();
+        try (MappingIterator<SubjectRequest> records = objectMapper.readerFor(SubjectRequest.class).readValues(in)) {
+            while (records.hasNextValue()) {
+                SubjectRequest record;
+                try {
+                    record = records.nextValue();
+                } catch (DatabindException e) {
+                    // the iterator skips to the end of the broken record on the next hasNextValue()
+                    run.reject(run.nextRow(), "Invalid record: " + e.getOriginalMessage());
+                    continue;
+                }
+                run.add(record);
+            }
+        } catch (JacksonException e) {
+            run.reject(run.report.getRows() + 1, "Malformed JSON, import stopped: " + e.getOriginalMessage());
+        }
+        return run.finish();
+    }
+
+    public ImportReport importCsv(InputStream in) {
+        CsvReader csv = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header is required");
+        }
+        int nameColumn = -1;
+        int descriptionColumn = -1;
+        int topicsColumn = -1;
+        for (int i = 0; i < header.size(); i++) {
+            switch (header.get(i).trim()) {
+                case "subjectName" -> nameColumn = i;
+                case "description" -> descriptionColumn = i;
+                case "topics" -> topicsColumn = i;
+                default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Unknown CSV column '" + header.get(i) + "', expected subjectName, description, topics");
+            }
+        }
+        if (nameColumn < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV column subjectName is required");
+        }
+
+        Import run = new Import();
+        try {
+            List<String> values;
+            while ((values = csv.next()) != null) {
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+                SubjectRequest record = new SubjectRequest();
+                record.setSubjectName(column(values, nameColumn));
+                record.setDescription(column(values, descriptionColumn));
+                String topics = column(values, topicsColumn);
+                if (topics != null) {
+                    List<Topic> list = new ArrayList<>();
+                    for (String name : topics.split(TOPIC_SEPARATOR)) {
+                        if (!name.isBlank()) {
+                            Topic topic = new Topic();
+                            topic.setTopicName(name.trim());
+                            list.add(topic);
+                        }
+                    }
+                    record.setTopics(list);
+                }
+                run.add(record);
+            }
+        } catch (MalformedCsvException e) {
+            run.reject(run.report.getRows() + 1, "Malformed CSV, import stopped: " + e.getMessage());
+        }
+        return run.finish();
+    }
+
+    private static String column(List<String> values, int index) {
+        if (index < 0 || index >= values.size() || values.get(index).isEmpty()) {
+            return null;
+        }
+        return values.get(index);
+    }
+
+    /**
+     * State of one import: the report, the chunk being collected and every topic name
+     * resolved so far
+     */
+    private final class Import {
+
+        private final ImportReport report = new ImportReport();
+        private final Map<String, Long> topicIds = new HashMap<>();
+        private List<Row> pending = new ArrayList<>();
+
+        long nextRow() {
+            report.setRows(report.getRows() + 1);
+            return report.getRows();
+        }
+
+        void add(SubjectRequest record) {
+            long row = nextRow();
+            String problem = validate(record);
+            if (problem != null) {
+                reject(row, problem);
+                return;
+            }
+            pending.add(new Row(row, record));
+            if (pending.size() == IMPORT_CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long row, String message) {
+            report.setErrorCount(report.getErrorCount() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ImportError(row, message));
+            }
+        }
+
+        ImportReport finish() {
+            if (!pending.isEmpty()) {
+                flush();
+            }
+            // topic lookups are reported when their chunk is written, after later validation errors
+            report.getErrors().sort(Comparator.comparingLong(ImportError::getRow));
+            return report;
+        }
+
+        private void flush() {
+            List<Row> chunk = pending;
+            pending = new ArrayList<>();
+            store(chunk);
+        }
+
+        private void store(List<Row> chunk) {
+            Written written;
+            try {
+                written = transactionTemplate.execute(status -> write(chunk, topicIds));
+            } catch (DataAccessException e) {
+                if (chunk.size() > 1) {
+                    // the chunk was rolled back as a whole; retry its rows alone to isolate the bad ones
+                    for (Row row : chunk) {
+                        store(List.of(row));
+                    }
+                } else {
+                    reject(chunk.get(0).number(), "Not imported: " + e.getMostSpecificCause().getMessage());
+                }
+                return;
+            }
+
+            for (ImportError error : written.errors()) {
+                reject(error.getRow(), error.getMessage());
+            }
+            topicIds.putAll(written.resolvedTopics());
+            for (Topic topic : written.topics()) {
+                searchIndex.index(topic);
+            }
+            for (Subject subject : written.subjects()) {
+                searchIndex.index(subject);
+                singleFlight.fence(subject.getSubjectId());
+            }
+            report.setSubjectsCreated(report.getSubjectsCreated() + written.subjects().size());
+            report.setTopicsCreated(report.getTopicsCreated() + written.topics().size());
+            report.setTopicsReused(report.getTopicsReused() + written.reused());
+            for (Object[] link : written.links()) {
+                trainerTopicMatrix.topicsLinked((Long) link[0], List.of((Long) link[1]));
+            }
+            report.setLinksCreated(report.getLinksCreated() + written.links().size());
+            if (!written.subjects().isEmpty()) {
+                catalogVersions.touch(CatalogVersions.SUBJECTS, CatalogVersions.TOPICS, CatalogVersions.SUBJECT_TOPICS);
+            }
+        }
+    }
+
+    private static String validate(SubjectRequest record) {
+        if (record == null || record.getSubjectName() == null || record.getSubjectName().isBlank()) {
+            return "subjectName is required";
+        }
+        if (tooLong(record.getSubjectName().trim()) || tooLong(record.getDescription())) {
+            return "subjectName and description are limited to " + MAX_TEXT_LENGTH + " characters";
+        }
+        if (record.getTopics() != null) {
+            for (Topic topic : record.getTopics()) {
+                if (topic == null || (topic.getTopicId() == null && (topic.getTopicName() == null || topic.getTopicName().isBlank()))) {
+                    return "Every topic needs a topicId or a topicName";
+                }
+                if (topic.getTopicId() == null && (tooLong(topic.getTopicName().trim()) || tooLong(topic.getDescription()))) {
+                    return "Topic names and descriptions are limited to " + MAX_TEXT_LENGTH + " characters";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_TEXT_LENGTH;
+    }
+
+    /**
+     * Writes one chunk; runs inside its transaction and leaves the shared topic map untouched,
+     * so a rolled back chunk leaves no trace
+     */
+    private Written write(List<Row> chunk, Map<String, Long> knownTopics) {
+        List<ImportError> errors = new ArrayList<>();
+
+        // topics referenced by id must exist
+        Set<Long> referencedIds = new HashSet<>();
+        Set<String> unresolvedNames = new LinkedHashSet<>();
+        for (Row row : chunk) {
+            for (Topic topic : topics(row)) {
+                if (topic.getTopicId() != null) {
+                    referencedIds.add(topic.getTopicId());
+                } else if (!knownTopics.containsKey(topic.getTopicName().trim())) {
+                    unresolvedNames.add(topic.getTopicName().trim());
+                }
+            }
+        }
+        Set<Long> existingIds = new HashSet<>();
+        for (List<Long> ids : partition(new ArrayList<>(referencedIds))) {
+            existingIds.addAll(topicRepository.findExistingIds(ids));
+        }
+        List<Row> rows = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            Long missing = null;
+            for (Topic topic : topics(row)) {
+                if (topic.getTopicId() != null && !existingIds.contains(topic.getTopicId())) {
+                    missing = topic.getTopicId();
+                    break;
+                }
+            }
+            if (missing != null) {
+                errors.add(new ImportError(row.number(), "Topic " + missing + " not found"));
+            } else {
+                rows.add(row);
+            }
+        }
+
+        // names already in the database are reused, the rest are inserted once
+        Map<String, Long> chunkTopics = new HashMap<>();
+        for (List<String> names : partition(new ArrayList<>(unresolvedNames))) {
+            for (IdName existing : topicRepository.findIdsByTopicNameIn(names)) {
+                chunkTopics.putIfAbsent(existing.getName(), existing.getId());
+            }
+        }
+        Map<String, Topic> newTopics = new LinkedHashMap<>();
+        for (Row row : rows) {
+            for (Topic topic : topics(row)) {
+                String name = topic.getTopicId() == null ? topic.getTopicName().trim() : null;
+                if (name != null && !knownTopics.containsKey(name) && !chunkTopics.containsKey(name) && !newTopics.containsKey(name)) {
+                    Topic created = new Topic();
+                    created.setTopicName(name);
+                    created.setDescription(topic.getDescription());
+                    newTopics.put(name, created);
+                }
+            }
+        }
+        List<Topic> createdTopics = new ArrayList<>(newTopics.values());
+        List<Long> topicKeys = insertReturningIds(INSERT_TOPIC_SQL, "topic_id",
+                createdTopics.stream().map(t -> new Object[]{t.getTopicName(), t.getDescription()}).toList());
+        for (int i = 0; i < createdTopics.size(); i++) {
+            createdTopics.get(i).setTopicId(topicKeys.get(i));
+            chunkTopics.put(createdTopics.get(i).getTopicName(), topicKeys.get(i));
+        }
+
+        List<Subject> subjects = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Subject subject = new Subject();
+            subject.setSubjectName(row.record().getSubjectName().trim());
+            subject.setDescription(row.record().getDescription());
+            subjects.add(subject);
+        }
+        List<Long> subjectKeys = insertReturningIds(INSERT_SUBJECT_SQL, "subject_id",
+                subjects.stream().map(s -> new Object[]{s.getSubjectName(), s.getDescription()}).toList());
+
+        List<Object[]> links = new ArrayList<>();
+        int reused = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Long subjectId = subjectKeys.get(i);
+            subjects.get(i).setSubjectId(subjectId);
+            Set<Long> linked = new HashSet<>();
+            for (Topic topic : topics(rows.get(i))) {
+                Long topicId = topic.getTopicId();
+                boolean created = false;
+                if (topicId == null) {
+                    String name = topic.getTopicName().trim();
+                    topicId = knownTopics.containsKey(name) ? knownTopics.get(name) : chunkTopics.get(name);
+                    created = newTopics.containsKey(name);
+                }
+                if (linked.add(topicId)) {
+                    links.add(new Object[]{subjectId, topicId});
+                    if (!created) {
+                        reused++;
+                    }
+                }
+            }
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINK_SQL, links);
+        }
+        return new Written(subjects, createdTopics, chunkTopics, links, reused, errors);
+    }
+
+    private static List<Topic> topics(Row row) {
+        return row.record().getTopics() == null ? List.of() : row.record().getTopics();
+    }
+
+    private static <T> List<List<T>> partition(List<T> values) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += BatchLoader.MAX_IN_LIST) {
+            parts.add(values.subList(from, Math.min(from + BatchLoader.MAX_IN_LIST, values.size())));
+        }
+        return parts;
+    }
+
+    /**
+     * One JDBC batch, returning the generated id of every row in batch order
+     */
+    private List<Long> insertReturningIds(String sql, String idColumn, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(sql, new String[]{idColumn}), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] values = rows.get(i);
+                for (int column = 0; column < values.length; column++) {
+                    ps.setObject(column + 1, values[column]);
+                }
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        }, keys);
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        if (ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated keys, got " + ids.size());
+        }
+        return ids;
+    }
+
+    private record Row(long number, SubjectRequest record) {
+    }
+
+    private record Written(List<Subject> subjects, List<Topic> topics, Map<String, Long> resolvedTopics,
+                           List<Object[]> links, int reused, List<ImportError> errors) {
+    }
+
+    private static final class MalformedCsvException extends RuntimeException {
+        MalformedCsvException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: quoted fields may contain commas, doubled quotes and line breaks
+     */
+    static final class CsvReader {
+
+        private final Reader reader;
+
+        CsvReader(Reader reader) {
+            this.reader = new BufferedReader(reader, 64 * 1024);
+        }
+
+        /**
+         * The next record, or null at end of input
+         */
+        List<String> next() {
+            try {
+                int c = reader.read();
+                if (c < 0) {
+                    return null;
+                }
+                List<String> values = new ArrayList<>();
+                StringBuilder value = new StringBuilder();
+                boolean quoted = false;
+                while (true) {
+                    if (quoted) {
+                        if (c < 0) {
+                            throw new MalformedCsvException("unterminated quoted field");
+                        }
+                        if (c == '"') {
+                            reader.mark(1);
+                            int following = reader.read();
+                            if (following == '"') {
+                                value.append('"');
+                            } else {
+                                quoted = false;
+                                reader.reset();
+                            }
+                        } else {
+                            value.append((char) c);
+                        }
+                    } else if (c < 0 || c == '\n') {
+                        values.add(value.toString());
+                        return values;
+                    } else if (c == '\r') {
+                        // dropped; \r\n ends the record at the \n
+                    } else if (c == ',') {
+                        values.add(value.toString());
+                        value.setLength(0);
+                    } else if (c == '"' && value.isEmpty()) {
+                        quoted = true;
+                    } else {
+                        value.append((char) c);
+                    }
+                    c = reader.read();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -1,67 +1,113 @@
 package com.example.trainerapp.service;
 
+import com.example.trainerapp.entity.BulkDeleteResult;
+import com.example.trainerapp.entity.CursorPage;
+import com.example.trainerapp.entity.NameChange;
 import com.example.trainerapp.entity.Subject;
 import com.example.trainerapp.entity.SubjectRequest;
 import com.example.trainerapp.entity.SubjectTopic;
 import com.example.trainerapp.entity.SubjectWithTrainers;
 import com.example.trainerapp.entity.Topic;
-import com.example.trainerapp.entity.Trainer;
 import com.example.trainerapp.repository.SubjectRepository;
 import com.example.trainerapp.repository.SubjectTopicRepository;
 import com.example.trainerapp.repository.TopicRepository;
 import com.example.trainerapp.repository.TrainerSubjectRepository;
-import com.example.trainerapp.repository.TrainerRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
 
 @Service
 public class SubjectService {
 
     private final SubjectRepository subjectRepository;
     private final TrainerSubjectRepository trainerSubjectRepository;
-    private final TrainerRepository trainerRepository;
     private final TopicRepository topicRepository;
     private final SubjectTopicRepository subjectTopicRepository;
-
-    public SubjectService(SubjectRepository subjectRepository, TrainerSubjectRepository trainerSubjectRepository, TrainerRepository trainerRepository, TopicRepository topicRepository, SubjectTopicRepository subjectTopicRepository) {
+    private final BatchLoader batchLoader;
+    private final PageCursors pageCursors;
+    private final AssignmentIndex assignmentIndex;
+    private final EntityCache entityCache;
+    private final SearchIndex searchIndex;
+    private final CatalogVersions catalogVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkMaxItems;
+    private final NameChangePropagator nameChangePropagator;
+    private final TrainerTopicMatrix trainerTopicMatrix;
+    private final SingleFlight singleFlight;
+
+    public SubjectService(SubjectRepository subjectRepository, TrainerSubjectRepository trainerSubjectRepository, TopicRepository topicRepository, SubjectTopicRepository subjectTopicRepository, BatchLoader batchLoader, PageCursors pageCursors, AssignmentIndex assignmentIndex, EntityCache entityCache, SearchIndex searchIndex, CatalogVersions catalogVersions,
+                          TransactionTemplate transactionTemplate, @Value("${trainerapp.bulk.max-items:10000}") int bulkMaxItems,
+                          NameChangePropagator nameChangePropagator, TrainerTopicMatrix trainerTopicMatrix, SingleFlight singleFlight) {
         this.subjectRepository = subjectRepository;
         this.trainerSubjectRepository = trainerSubjectRepository;
-        this.trainerRepository = trainerRepository;
         this.topicRepository = topicRepository;
         this.subjectTopicRepository = subjectTopicRepository;
+        this.batchLoader = batchLoader;
+        this.pageCursors = pageCursors;
+        this.assignmentIndex = assignmentIndex;
+        this.entityCache = entityCache;
+        this.searchIndex = searchIndex;
+        this.catalogVersions = catalogVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkMaxItems = bulkMaxItems;
+        this.nameChangePropagator = nameChangePropagator;
+        this.trainerTopicMatrix = trainerTopicMatrix;
+        this.singleFlight = singleFlight;
     }
 
     public Subject addSubject(Subject subject) {
-        return subjectRepository.save(subject);
+        // a POST with an existing id edits the subject, so its rename must reach the assignment copies
+        if (subject.getSubjectId() != null) {
+            Optional<Subject> updated = updateSubject(subject.getSubjectId(), subject);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+        }
+        Subject saved = subjectRepository.save(subject);
+        entityCache.evictSubject(saved.getSubjectId());
+        singleFlight.fence(saved.getSubjectId());
+        searchIndex.index(saved);
+        catalogVersions.touch(CatalogVersions.SUBJECTS);
+        return saved;
     }
 
     public List<Subject> getAllSubjects() {
+        pageCursors.checkUnpagedAllowed();
         return subjectRepository.findAll();
     }
 
+    public CursorPage<Subject> getSubjectsPage(String cursor, Integer limit) {
+        int size = pageCursors.limit(limit);
+        List<Subject> rows = subjectRepository.findBySubjectIdGreaterThanOrderBySubjectIdAsc(pageCursors.after(cursor), pageCursors.fetchLimit(size));
+        return pageCursors.page(rows, size, Subject::getSubjectId);
+    }
+
     public Subject getSubjectById(Long id) {
-        return subjectRepository.findById(id).orElse(null);
+        return entityCache.findSubject(id).orElse(null);
     }
 
+    /**
+     * Concurrent calls for the same subject share one load
+     */
     public SubjectWithTrainers getSubjectWithTrainers(Long id) {
-        Subject subject = subjectRepository.findById(id).orElse(null);
-        if (subject == null) {
-            return null;
-        }
-        List<Trainer> trainers = trainerSubjectRepository.findBySubjectId(id).stream()
-                .map(ts -> trainerRepository.findById(ts.getEmpId()).orElse(null))
-                .filter(trainer -> trainer != null)
-                .collect(Collectors.toList());
-        return new SubjectWithTrainers(subject, trainers);
+        return singleFlight.load("getSubjectWithTrainers", id, () -> {
+            Subject subject = entityCache.findSubject(id).orElse(null);
+            if (subject == null) {
+                return null;
+            }
+            return new SubjectWithTrainers(subject, batchLoader.trainers(trainerSubjectRepository.findEmpIdsBySubjectId(id)));
+        });
     }
 
+    /**
+     * Concurrent calls for the same subject share one load
+     */
     public List<Topic> getTopicsForSubject(Long subjectId) {
-        return subjectTopicRepository.findBySubjectId(subjectId).stream()
-                .map(st -> topicRepository.findById(st.getTopicId()).orElse(null))
-                .filter(topic -> topic != null)
-                .collect(Collectors.toList());
+        return singleFlight.load("getTopicsForSubject", subjectId,
+                () -> batchLoader.topics(subjectTopicRepository.findTopicIdsBySubjectId(subjectId)));
     }
 
     public void assignTopicToSubject(Long subjectId, Long topicId) {
@@ -70,12 +116,20 @@ public class SubjectService {
             subjectTopic.setSubjectId(subjectId);
             subjectTopic.setTopicId(topicId);
             subjectTopicRepository.save(subjectTopic);
+            trainerTopicMatrix.topicsLinked(subjectId, List.of(topicId));
+            singleFlight.fence(subjectId);
+            catalogVersions.touch(CatalogVersions.SUBJECT_TOPICS);
         }
     }
 
     public void removeTopicFromSubject(Long subjectId, Long topicId) {
         List<SubjectTopic> subjectTopics = subjectTopicRepository.findBySubjectIdAndTopicId(subjectId, topicId);
         subjectTopicRepository.deleteAll(subjectTopics);
+        if (!subjectTopics.isEmpty()) {
+            trainerTopicMatrix.topicUnlinked(subjectId, topicId);
+            singleFlight.fence(subjectId);
+            catalogVersions.touch(CatalogVersions.SUBJECT_TOPICS);
+        }
     }
 
     public Subject addSubjectWithTopics(SubjectRequest subjectRequest) {
@@ -84,6 +138,9 @@ public class SubjectService {
         subject.setSubjectName(subjectRequest.getSubjectName());
         subject.setDescription(subjectRequest.getDescription());
         Subject savedSubject = subjectRepository.save(subject);
+        singleFlight.fence(savedSubject.getSubjectId());
+        searchIndex.index(savedSubject);
+        catalogVersions.touch(CatalogVersions.SUBJECTS);
 
         // Save topics and associate with subject
         if (subjectRequest.getTopics() != null) {
@@ -92,6 +149,9 @@ public class SubjectService {
                 if (topic.getTopicId() == null) {
                     // Save new topic
                     savedTopic = topicRepository.save(topic);
+                    entityCache.evictTopic(savedTopic.getTopicId());
+                    searchIndex.index(savedTopic);
+                    catalogVersions.touch(CatalogVersions.TOPICS);
                 } else {
                     // Use existing topic
                     savedTopic = topic;
@@ -104,12 +164,63 @@ public class SubjectService {
         return savedSubject;
     }
 
+    /**
+     * Overwrite a subject's name and description; a new name is queued for the assignment
+     * copies in the same transaction. The row stays locked until commit, so a concurrent update
+     * sees the rename and cannot revert the name without queuing that too
+     */
+    public Optional<Subject> updateSubject(Long id, Subject changes) {
+        Optional<Subject> updated = transactionTemplate.execute(status -> subjectRepository.findByIdForUpdate(id).map(subject -> {
+            boolean renamed = changes.getSubjectName() != null && !changes.getSubjectName().equals(subject.getSubjectName());
+            subject.setSubjectName(changes.getSubjectName());
+            subject.setDescription(changes.getDescription());
+            Subject saved = subjectRepository.save(subject);
+            if (renamed) {
+                nameChangePropagator.record(NameChange.SUBJECT, id, saved.getSubjectName());
+            }
+            catalogVersions.touch(CatalogVersions.SUBJECTS);
+            return saved;
+        }));
+        updated.ifPresent(subject -> {
+            entityCache.evictSubject(id);
+            singleFlight.fence(id);
+            searchIndex.index(subject);
+        });
+        return updated;
+    }
+
     public void deleteSubject(Long id) {
-        // Delete related TrainerSubject records
-        trainerSubjectRepository.deleteBySubjectId(id);
-        // Delete related SubjectTopic records
-        subjectTopicRepository.findBySubjectId(id);
-        // Delete the subject
-        subjectRepository.deleteById(id);
+        deleteSubjects(List.of(id));
+    }
+
+    /**
+     * Delete subjects together with their trainer assignments and topic links
+     * Each chunk of ids costs three DELETE ... WHERE IN statements, all chunks run in one
+     * transaction, and the in-memory index, cache and search entries are dropped after commit
+     */
+    public BulkDeleteResult deleteSubjects(List<Long> ids) {
+        List<Long> unique = BatchLoader.distinctIds(ids, bulkMaxItems);
+        BulkDeleteResult result = transactionTemplate.execute(status -> {
+            BulkDeleteResult totals = new BulkDeleteResult(ids.size(), 0, 0, 0);
+            for (int from = 0; from < unique.size(); from += BatchLoader.MAX_IN_LIST) {
+                List<Long> chunk = unique.subList(from, Math.min(from + BatchLoader.MAX_IN_LIST, unique.size()));
+                totals.setAssignmentsRemoved(totals.getAssignmentsRemoved() + trainerSubjectRepository.deleteBySubjectIdIn(chunk));
+                totals.setTopicLinksRemoved(totals.getTopicLinksRemoved() + subjectTopicRepository.deleteBySubjectIdIn(chunk));
+                totals.setDeleted(totals.getDeleted() + subjectRepository.deleteBySubjectIdIn(chunk));
+            }
+            return totals;
+        });
+
+        assignmentIndex.refreshSubjects(unique);
+        for (Long id : unique) {
+            trainerTopicMatrix.subjectRemoved(id);
+            entityCache.evictSubject(id);
+            singleFlight.fence(id);
+            searchIndex.remove(SearchIndex.SUBJECT, id);
+        }
+        if (result.getDeleted() > 0 || result.getTopicLinksRemoved() > 0) {
+            catalogVersions.touch(CatalogVersions.SUBJECTS, CatalogVersions.SUBJECT_TOPICS);
+        }
+        return result;
     }
 }
@@ -1,5 +1,6 @@
 package com.example.trainerapp.service;
 
+import com.example.trainerapp.entity.CursorPage;
 import com.example.trainerapp.entity.Topic;
 import com.example.trainerapp.repository.TopicRepository;
 import org.springframework.stereotype.Service;
@@ -10,20 +11,46 @@ import java.util.List;
 public class TopicService {
 
     private final TopicRepository topicRepository;
+    private final PageCursors pageCursors;
+    private final EntityCache entityCache;
+    private final SearchIndex searchIndex;
+    private final CatalogVersions catalogVersions;
+    private final SingleFlight singleFlight;
 
-    public TopicService(TopicRepository topicRepository) {
+    public TopicService(TopicRepository topicRepository, PageCursors pageCursors, EntityCache entityCache, SearchIndex searchIndex, CatalogVersions catalogVersions, SingleFlight singleFlight) {
         this.topicRepository = topicRepository;
+        this.pageCursors = pageCursors;
+        this.entityCache = entityCache;
+        this.searchIndex = searchIndex;
+        this.catalogVersions = catalogVersions;
+        this.singleFlight = singleFlight;
     }
 
     public Topic addTopic(Topic topic) {
-        return topicRepository.save(topic);
+        boolean existing = topic.getTopicId() != null;
+        Topic saved = topicRepository.save(topic);
+        entityCache.evictTopic(saved.getTopicId());
+        if (existing) {
+            // an overwritten topic shows up in the topic lists of every subject linking it
+            singleFlight.fenceAll();
+        }
+        searchIndex.index(saved);
+        catalogVersions.touch(CatalogVersions.TOPICS);
+        return saved;
     }
 
     public List<Topic> getAllTopics() {
+        pageCursors.checkUnpagedAllowed();
         return topicRepository.findAll();
     }
 
+    public CursorPage<Topic> getTopicsPage(String cursor, Integer limit) {
+        int size = pageCursors.limit(limit);
+        List<Topic> rows = topicRepository.findByTopicIdGreaterThanOrderByTopicIdAsc(pageCursors.after(cursor), pageCursors.fetchLimit(size));
+        return pageCursors.page(rows, size, Topic::getTopicId);
+    }
+
     public Topic getTopicById(Long id) {
-        return topicRepository.findById(id).orElse(null);
+        return entityCache.findTopic(id).orElse(null);
     }
 }
@@ -1,11 +1,15 @@
 package com.example.trainerapp.service;
 
+import com.example.trainerapp.entity.BulkDeleteResult;
+import com.example.trainerapp.entity.CursorPage;
+import com.example.trainerapp.entity.NameChange;
 import com.example.trainerapp.entity.Trainer;
 import com.example.trainerapp.repository.TrainerRepository;
 import com.example.trainerapp.repository.TrainerSubjectRepository;
-import com.example.trainerapp.repository.SubjectRepository;
 import com.example.trainerapp.entity.Subject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,28 +19,123 @@ public class TrainerService {
 
     private final TrainerRepository trainerRepository;
     private final TrainerSubjectRepository trainerSubjectRepository;
-    private final SubjectRepository subjectRepository;
+    private final BatchLoader batchLoader;
+    private final PageCursors pageCursors;
+    private final EntityCache entityCache;
+    private final SearchIndex searchIndex;
+    private final AssignmentIndex assignmentIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int bulkMaxItems;
+    private final NameChangePropagator nameChangePropagator;
+    private final TrainerTopicMatrix trainerTopicMatrix;
+    private final SingleFlight singleFlight;
 
-    public TrainerService(TrainerRepository trainerRepository, TrainerSubjectRepository trainerSubjectRepository, SubjectRepository subjectRepository) {
+    public TrainerService(TrainerRepository trainerRepository, TrainerSubjectRepository trainerSubjectRepository, BatchLoader batchLoader, PageCursors pageCursors, EntityCache entityCache, SearchIndex searchIndex,
+                          AssignmentIndex assignmentIndex, TransactionTemplate transactionTemplate, @Value("${trainerapp.bulk.max-items:10000}") int bulkMaxItems,
+                          NameChangePropagator nameChangePropagator, TrainerTopicMatrix trainerTopicMatrix, SingleFlight singleFlight) {
         this.trainerRepository = trainerRepository;
         this.trainerSubjectRepository = trainerSubjectRepository;
-        this.subjectRepository = subjectRepository;
+        this.batchLoader = batchLoader;
+        this.pageCursors = pageCursors;
+        this.entityCache = entityCache;
+        this.searchIndex = searchIndex;
+        this.assignmentIndex = assignmentIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.bulkMaxItems = bulkMaxItems;
+        this.nameChangePropagator = nameChangePropagator;
+        this.trainerTopicMatrix = trainerTopicMatrix;
+        this.singleFlight = singleFlight;
     }
 
     public Trainer addTrainer(Trainer trainer) {
-        return trainerRepository.save(trainer);
+        // a POST with an existing id edits the trainer, so its rename must reach the assignment copies
+        if (trainer.getEmpId() != null) {
+            Optional<Trainer> updated = updateTrainer(trainer.getEmpId(), trainer);
+            if (updated.isPresent()) {
+                return updated.get();
+            }
+        }
+        Trainer saved = trainerRepository.save(trainer);
+        entityCache.evictTrainer(saved.getEmpId());
+        searchIndex.index(saved);
+        trainerTopicMatrix.trainerSaved(saved);
+        return saved;
     }
 
     public List<Trainer> getAllTrainers() {
+        pageCursors.checkUnpagedAllowed();
         return trainerRepository.findAll();
     }
 
+    public CursorPage<Trainer> getTrainersPage(String cursor, Integer limit) {
+        int size = pageCursors.limit(limit);
+        List<Trainer> rows = trainerRepository.findByEmpIdGreaterThanOrderByEmpIdAsc(pageCursors.after(cursor), pageCursors.fetchLimit(size));
+        return pageCursors.page(rows, size, Trainer::getEmpId);
+    }
+
     public Optional<Trainer> getTrainerById(Long id) {
-        return trainerRepository.findById(id);
+        return entityCache.findTrainer(id);
+    }
+
+    /**
+     * Overwrite a trainer's fields; a new name is queued for the assignment copies in the same transaction.
+     * The row stays locked until commit, so a concurrent update sees the rename and cannot revert the
+     * name without queuing that too
+     */
+    public Optional<Trainer> updateTrainer(Long id, Trainer changes) {
+        Optional<Trainer> updated = transactionTemplate.execute(status -> trainerRepository.findByIdForUpdate(id).map(trainer -> {
+            boolean renamed = changes.getName() != null && !changes.getName().equals(trainer.getName());
+            trainer.setName(changes.getName());
+            trainer.setEmail(changes.getEmail());
+            trainer.setExperience(changes.getExperience());
+            trainer.setAddress(changes.getAddress());
+            trainer.setFormat(changes.getFormat());
+            trainer.setMobileNumber(changes.getMobileNumber());
+            trainer.setSubjects(changes.getSubjects());
+            Trainer saved = trainerRepository.save(trainer);
+            if (renamed) {
+                nameChangePropagator.record(NameChange.TRAINER, id, saved.getName());
+            }
+            return saved;
+        }));
+        updated.ifPresent(trainer -> {
+            entityCache.evictTrainer(id);
+            searchIndex.index(trainer);
+            trainerTopicMatrix.trainerSaved(trainer);
+            // the trainer appears in the trainer lists of all its subjects
+            singleFlight.fenceAll();
+        });
+        return updated;
     }
 
     public void deleteTrainer(Long id) {
-        trainerRepository.deleteById(id);
+        deleteTrainers(List.of(id));
+    }
+
+    /**
+     * Delete trainers together with their subject assignments, two DELETE ... WHERE IN
+     * statements per chunk of ids in one transaction
+     */
+    public BulkDeleteResult deleteTrainers(List<Long> ids) {
+        List<Long> unique = BatchLoader.distinctIds(ids, bulkMaxItems);
+        BulkDeleteResult result = transactionTemplate.execute(status -> {
+            BulkDeleteResult totals = new BulkDeleteResult(ids.size(), 0, 0, 0);
+            for (int from = 0; from < unique.size(); from += BatchLoader.MAX_IN_LIST) {
+                List<Long> chunk = unique.subList(from, Math.min(from + BatchLoader.MAX_IN_LIST, unique.size()));
+                totals.setAssignmentsRemoved(totals.getAssignmentsRemoved() + trainerSubjectRepository.deleteByEmpIdIn(chunk));
+                totals.setDeleted(totals.getDeleted() + trainerRepository.deleteByEmpIdIn(chunk));
+            }
+            return totals;
+        });
+
+        assignmentIndex.refreshTrainers(unique);
+        for (Long id : unique) {
+            trainerTopicMatrix.trainerRemoved(id);
+            entityCache.evictTrainer(id);
+            searchIndex.remove(SearchIndex.TRAINER, id);
+        }
+        singleFlight.fenceAll();
+        return result;
     }
 
     public List<Trainer> getTrainersBySubject(String subjectName) {
@@ -44,9 +143,6 @@ public class TrainerService {
     }
 
     public List<Subject> getSubjectsByTrainer(Long empId) {
-        return trainerSubjectRepository.findByEmpId(empId).stream()
-                .map(ts -> subjectRepository.findById(ts.getSubjectId()).orElse(null))
-                .filter(s -> s != null)
-                .toList();
+        return batchLoader.subjects(trainerSubjectRepository.findSubjectIdsByEmpId(empId));
     }
 }
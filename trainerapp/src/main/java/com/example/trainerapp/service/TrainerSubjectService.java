@@ -1,17 +1,39 @@
 package com.example.trainerapp.service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.example.trainerapp.entity.AssignmentKey;
+import com.example.trainerapp.entity.BulkAssignResult;
+import com.example.trainerapp.entity.CursorPage;
+import com.example.trainerapp.entity.IdName;
+import com.example.trainerapp.entity.SubjectMoveResult;
 import com.example.trainerapp.entity.TrainerSubject;
 import com.example.trainerapp.repository.TrainerSubjectRepository;
 import com.example.trainerapp.repository.TrainerRepository;
 import com.example.trainerapp.repository.SubjectRepository;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TrainerSubjectService {
 
+    private static final Logger log = LoggerFactory.getLogger(TrainerSubjectService.class);
+
     @Autowired
     private TrainerSubjectRepository trainerSubjectRepository;
 
@@ -21,13 +43,49 @@ public class TrainerSubjectService {
     @Autowired
     private SubjectRepository subjectRepository;
 
+    @Autowired
+    private PageCursors pageCursors;
+
+    @Autowired
+    private AssignmentIndex assignmentIndex;
+
+    @Autowired
+    private EntityCache entityCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Value("${trainerapp.bulk.max-items:10000}")
+    private int bulkMaxItems;
+
+    static final int BULK_CHUNK_SIZE = 500;
+
+    private static final String BULK_INSERT_SQL =
+            "INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (?, ?, ?, ?)";
+
     /**
-     * Get all trainer-subject assignments
+     * Get all trainer-subject assignments (unpaged, explicit opt-in only)
      */
     public List<TrainerSubject> getAllAssignments() {
+        pageCursors.checkUnpagedAllowed();
         return trainerSubjectRepository.findAll();
     }
 
+    /**
+     * Get one keyset page of assignments ordered by id
+     */
+    public CursorPage<TrainerSubject> getAssignmentsPage(String cursor, Integer limit) {
+        int size = pageCursors.limit(limit);
+        List<TrainerSubject> rows = trainerSubjectRepository.findByIdGreaterThanOrderByIdAsc(pageCursors.after(cursor), pageCursors.fetchLimit(size));
+        return pageCursors.page(rows, size, TrainerSubject::getId);
+    }
+
     /**
      * Get assignment by ID
      */
@@ -68,16 +126,19 @@ public class TrainerSubjectService {
         }
 
         // Populate trainer name and subject name
-        var trainer = trainerRepository.findById(trainerSubject.getEmpId())
+        var trainer = entityCache.findTrainer(trainerSubject.getEmpId())
                 .orElseThrow(() -> new Exception("Trainer not found!"));
-        var subject = subjectRepository.findById(trainerSubject.getSubjectId())
+        var subject = entityCache.findSubject(trainerSubject.getSubjectId())
                 .orElseThrow(() -> new Exception("Subject not found!"));
 
         trainerSubject.setTrainerName(trainer.getName());
         trainerSubject.setSubjectName(subject.getSubjectName());
 
         try {
-            return trainerSubjectRepository.save(trainerSubject);
+            TrainerSubject saved = trainerSubjectRepository.save(trainerSubject);
+            assignmentIndex.refreshTrainers(List.of(saved.getEmpId()));
+            singleFlight.fence(saved.getSubjectId());
+            return saved;
         } catch (Exception e) {
             // Handle duplicate key constraint violation
             if (e.getMessage() != null &&
@@ -88,6 +149,128 @@ public class TrainerSubjectService {
         }
     }
 
+    /**
+     * Assign many trainers to subjects in one request
+     * Names and existing pairs are resolved with set queries per chunk and new rows
+     * are written as JDBC batches, all in one transaction
+     * Returns one result per submitted pair, in the submitted order
+     */
+    public List<BulkAssignResult> bulkAssign(List<TrainerSubject> pairs) throws Exception {
+        if (pairs == null || pairs.isEmpty()) {
+            throw new Exception("At least one assignment is required!");
+        }
+        if (pairs.size() > bulkMaxItems) {
+            throw new Exception("At most " + bulkMaxItems + " assignments per request!");
+        }
+
+        List<BulkAssignResult> results = transactionTemplate.execute(status -> {
+            Set<Pair> seen = new HashSet<>(pairs.size() * 2);
+            List<BulkAssignResult> chunkResults = new ArrayList<>(pairs.size());
+            for (int from = 0; from < pairs.size(); from += BULK_CHUNK_SIZE) {
+                chunkResults.addAll(bulkAssignChunk(pairs.subList(from, Math.min(from + BULK_CHUNK_SIZE, pairs.size())), seen));
+            }
+            return chunkResults;
+        });
+
+        Set<Long> assigned = new HashSet<>();
+        for (BulkAssignResult result : results) {
+            if (result.getStatus() == BulkAssignResult.Status.CREATED) {
+                assigned.add(result.getEmpId());
+                singleFlight.fence(result.getSubjectId());
+            }
+        }
+        assignmentIndex.refreshTrainers(assigned);
+        return results;
+    }
+
+    private List<BulkAssignResult> bulkAssignChunk(List<TrainerSubject> chunk, Set<Pair> seen) {
+        Set<Long> empIds = new HashSet<>();
+        Set<Long> subjectIds = new HashSet<>();
+        for (TrainerSubject ts : chunk) {
+            if (ts != null && ts.getEmpId() != null && ts.getSubjectId() != null) {
+                empIds.add(ts.getEmpId());
+                subjectIds.add(ts.getSubjectId());
+            }
+        }
+
+        Map<Long, String> trainerNames = new HashMap<>();
+        Map<Long, String> subjectNames = new HashMap<>();
+        Set<Pair> existing = new HashSet<>();
+        if (!empIds.isEmpty()) {
+            for (IdName row : trainerRepository.findNamesByEmpIdIn(empIds)) {
+                trainerNames.put(row.getId(), row.getName());
+            }
+            for (IdName row : subjectRepository.findNamesBySubjectIdIn(subjectIds)) {
+                subjectNames.put(row.getId(), row.getName());
+            }
+            for (AssignmentKey key : trainerSubjectRepository.findKeysByEmpIdInAndSubjectIdIn(empIds, subjectIds)) {
+                existing.add(new Pair(key.getEmpId(), key.getSubjectId()));
+            }
+        }
+
+        List<BulkAssignResult> results = new ArrayList<>(chunk.size());
+        List<Object[]> inserts = new ArrayList<>();
+        List<BulkAssignResult> inserted = new ArrayList<>();
+        for (TrainerSubject ts : chunk) {
+            if (ts == null || ts.getEmpId() == null || ts.getSubjectId() == null) {
+                results.add(new BulkAssignResult(ts == null ? null : ts.getEmpId(), ts == null ? null : ts.getSubjectId(),
+                        BulkAssignResult.Status.INVALID));
+                continue;
+            }
+            BulkAssignResult result = new BulkAssignResult(ts.getEmpId(), ts.getSubjectId(), BulkAssignResult.Status.CREATED);
+            Pair pair = new Pair(ts.getEmpId(), ts.getSubjectId());
+            if (!trainerNames.containsKey(ts.getEmpId())) {
+                result.setStatus(BulkAssignResult.Status.UNKNOWN_TRAINER);
+            } else if (!subjectNames.containsKey(ts.getSubjectId())) {
+                result.setStatus(BulkAssignResult.Status.UNKNOWN_SUBJECT);
+            } else if (existing.contains(pair) || !seen.add(pair)) {
+                result.setStatus(BulkAssignResult.Status.DUPLICATE);
+            } else {
+                inserts.add(new Object[]{ts.getEmpId(), ts.getSubjectId(),
+                        trainerNames.get(ts.getEmpId()), subjectNames.get(ts.getSubjectId())});
+                inserted.add(result);
+            }
+            results.add(result);
+        }
+
+        if (!inserts.isEmpty()) {
+            // a rewritten batch reports no per-row counts, so a constraint violation fails it as a whole
+            Savepoint savepoint = jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+            try {
+                jdbcTemplate.batchUpdate(BULK_INSERT_SQL, inserts);
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.releaseSavepoint(savepoint);
+                    return null;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // a pair assigned, or a trainer or subject deleted, since the checks above:
+                // undo the batch and insert row by row to tell which
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                    connection.rollback(savepoint);
+                    return null;
+                });
+                for (int i = 0; i < inserts.size(); i++) {
+                    insertOne(inserts.get(i), inserted.get(i));
+                }
+            }
+        }
+        return results;
+    }
+
+    private void insertOne(Object[] row, BulkAssignResult result) {
+        try {
+            jdbcTemplate.update(BULK_INSERT_SQL, row);
+        } catch (DuplicateKeyException e) {
+            result.setStatus(BulkAssignResult.Status.DUPLICATE);
+        } catch (DataIntegrityViolationException e) {
+            result.setStatus(trainerRepository.existsById(result.getEmpId())
+                    ? BulkAssignResult.Status.UNKNOWN_SUBJECT : BulkAssignResult.Status.UNKNOWN_TRAINER);
+        }
+    }
+
+    private record Pair(long empId, long subjectId) {
+    }
+
     /**
      * Delete assignment by trainer and subject
      * Uses optimized delete query
@@ -95,10 +278,11 @@ public class TrainerSubjectService {
     public boolean deleteAssignment(Long empId, Long subjectId) {
         try {
             int deletedCount = trainerSubjectRepository.deleteByEmpIdAndSubjectId(empId, subjectId);
+            assignmentIndex.refreshTrainers(List.of(empId));
+            singleFlight.fence(subjectId);
             return deletedCount > 0;
         } catch (Exception e) {
-            System.out.println("Error deleting assignment: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error deleting assignment {}/{}", empId, subjectId, e);
             return false;
         }
     }
@@ -108,21 +292,27 @@ public class TrainerSubjectService {
      */
     public boolean deleteAssignmentById(Long id) {
         try {
-            if (trainerSubjectRepository.existsById(id)) {
+            Optional<TrainerSubject> existing = trainerSubjectRepository.findById(id);
+            if (existing.isPresent()) {
                 trainerSubjectRepository.deleteById(id);
+                assignmentIndex.refreshTrainers(List.of(existing.get().getEmpId()));
+                singleFlight.fence(existing.get().getSubjectId());
                 return true;
             }
         } catch (Exception e) {
-            System.out.println("Error deleting assignment by ID: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error deleting assignment {}", id, e);
         }
         return false;
     }
 
     /**
      * Check if a trainer is assigned to a subject
+     * Answered from the in-memory index once it is loaded
      */
     public boolean isAssigned(Long empId, Long subjectId) {
+        if (assignmentIndex.isReady()) {
+            return assignmentIndex.isAssigned(empId, subjectId);
+        }
         return trainerSubjectRepository.existsByEmpIdAndSubjectId(empId, subjectId);
     }
 
@@ -130,33 +320,91 @@ public class TrainerSubjectService {
      * Get count of assignments for a trainer
      */
     public long getTrainerAssignmentCount(Long empId) {
-        return getAssignmentsByTrainer(empId).size();
+        if (assignmentIndex.isReady()) {
+            return assignmentIndex.trainerDegree(empId);
+        }
+        return trainerSubjectRepository.countByEmpId(empId);
     }
 
     /**
      * Get count of trainers assigned to a subject
      */
     public long getSubjectTrainerCount(Long subjectId) {
-        return getAssignmentsBySubject(subjectId).size();
+        if (assignmentIndex.isReady()) {
+            return assignmentIndex.subjectDegree(subjectId);
+        }
+        return trainerSubjectRepository.countBySubjectId(subjectId);
     }
 
     /**
      * Update assignment (replace old subject with new subject for a trainer)
+     * The row is moved in place with one UPDATE, so the trainer is never without the assignment
+     * and the assignment keeps its id; the unique constraint rejects an existing target pair
      */
     public TrainerSubject updateAssignment(Long empId, Long oldSubjectId, Long newSubjectId) 
             throws Exception {
-        
-        // Delete old assignment
-        if (!deleteAssignment(empId, oldSubjectId)) {
+
+        if (empId == null || oldSubjectId == null || newSubjectId == null) {
+            throw new Exception("Trainer ID, old and new Subject ID are required!");
+        }
+        if (oldSubjectId.equals(newSubjectId)) {
+            throw new Exception("Old and new subject are the same!");
+        }
+        var subject = entityCache.findSubject(newSubjectId)
+                .orElseThrow(() -> new Exception("Subject not found!"));
+
+        TrainerSubject updated;
+        try {
+            updated = transactionTemplate.execute(status -> {
+                if (trainerSubjectRepository.reassign(empId, oldSubjectId, newSubjectId, subject.getSubjectName()) == 0) {
+                    return null;
+                }
+                return trainerSubjectRepository.findByEmpIdAndSubjectId(empId, newSubjectId).orElse(null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new Exception("This trainer is already assigned to this subject!");
+        }
+        if (updated == null) {
             throw new Exception("Old assignment not found!");
         }
 
-        // Create new assignment
-        TrainerSubject newAssignment = new TrainerSubject();
-        newAssignment.setEmpId(empId);
-        newAssignment.setSubjectId(newSubjectId);
+        assignmentIndex.refreshTrainers(List.of(empId));
+        singleFlight.fence(oldSubjectId);
+        singleFlight.fence(newSubjectId);
+        return updated;
+    }
+
+    /**
+     * Move every assignment of one subject to another, e.g. when two courses are merged
+     * Trainers already assigned to the target lose their old assignment instead of being
+     * duplicated, then one UPDATE moves the rest and refreshes the denormalized subject name
+     */
+    public SubjectMoveResult moveAssignments(Long fromSubjectId, Long toSubjectId) throws Exception {
+        if (fromSubjectId == null || toSubjectId == null) {
+            throw new Exception("Source and target Subject ID are required!");
+        }
+        if (fromSubjectId.equals(toSubjectId)) {
+            throw new Exception("Source and target subject are the same!");
+        }
+        var target = entityCache.findSubject(toSubjectId)
+                .orElseThrow(() -> new Exception("Subject not found!"));
+
+        SubjectMoveResult result;
+        try {
+            result = transactionTemplate.execute(status -> {
+                int merged = trainerSubjectRepository.deleteOverlapping(fromSubjectId, toSubjectId);
+                int moved = trainerSubjectRepository.moveSubject(fromSubjectId, toSubjectId, target.getSubjectName());
+                return new SubjectMoveResult(fromSubjectId, toSubjectId, moved, merged);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // a trainer was assigned to the target between the merge and the move
+            throw new Exception("Assignments changed during the move, please retry!");
+        }
 
-        return assignTrainerToSubject(newAssignment);
+        assignmentIndex.refreshSubjects(List.of(fromSubjectId, toSubjectId));
+        singleFlight.fence(fromSubjectId);
+        singleFlight.fence(toSubjectId);
+        return result;
     }
 
     /**
@@ -166,11 +414,11 @@ public class TrainerSubjectService {
     public int cleanupDuplicates() {
         try {
             int deletedCount = trainerSubjectRepository.deleteDuplicates();
-            System.out.println("Deleted " + deletedCount + " duplicate assignments");
+            log.info("Deleted {} duplicate assignments", deletedCount);
+            singleFlight.fenceAll();
             return deletedCount;
         } catch (Exception e) {
-            System.out.println("Error cleaning duplicates: " + e.getMessage());
-            e.printStackTrace();
+            log.warn("Error cleaning duplicates", e);
             return 0;
         }
     }
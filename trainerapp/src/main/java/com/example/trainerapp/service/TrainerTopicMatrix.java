@@ -0,0 +1,351 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerMatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trainer x topic coverage matrix for "which trainers cover these topics best".
+ *
+ * Every topic gets a bit position; each subject keeps the bits of its topics and each trainer
+ * the union over the subjects it teaches (taken from {@link AssignmentIndex}), as packed words.
+ * A match query turns the requested topics into a word mask and scores every trainer with a
+ * few AND + bitCount operations, so ranking tens of thousands of trainers takes milliseconds.
+ *
+ * Built after the assignment index at startup and then kept current: trainer rows are recomputed
+ * whenever the index reports their subjects changed, and the subject and trainer services report
+ * topic links and trainer facts (experience, format) as they write them. A trainer row costs
+ * one bit per topic id position up to its highest covered topic.
+ */
+@Component
+public class TrainerTopicMatrix {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainerTopicMatrix.class);
+
+    static final int MAX_QUERY_TOPICS = 1000;
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingInt(Candidate::covered).reversed()
+            .thenComparing(Comparator.comparingInt((Candidate c) -> c.row().experience).reversed())
+            .thenComparingLong(c -> c.row().empId);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AssignmentIndex assignmentIndex;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> bitOfTopic = new HashMap<>();
+    private long[] topicOfBit = new long[64];
+    private Map<Long, BitSet> topicsOfSubject = new HashMap<>();
+    private Map<Long, Row> trainers = new HashMap<>();
+    private volatile boolean ready;
+
+    // changes seen while a load is running, replayed on top of the loaded matrix
+    private List<Runnable> pendingChanges;
+
+    public TrainerTopicMatrix(JdbcTemplate jdbcTemplate, AssignmentIndex assignmentIndex) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.assignmentIndex = assignmentIndex;
+        assignmentIndex.addTrainerListener(this::trainerSubjectsChanged);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void load() {
+        if (!assignmentIndex.isReady()) {
+            log.warn("Trainer topic matrix not loaded: assignment index is not ready");
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // built into fresh maps; the old ones keep answering queries until the swap
+        Map<Long, BitSet> subjects = new HashMap<>();
+        Map<Long, Row> rows = new HashMap<>();
+        try {
+            jdbcTemplate.query("SELECT subject_id, topic_id FROM subject_topic", rs -> {
+                long subjectId = rs.getLong(1);
+                long topicId = rs.getLong(2);
+                int bit;
+                lock.writeLock().lock();
+                try {
+                    bit = bitOf(topicId);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                subjects.computeIfAbsent(subjectId, id -> new BitSet()).set(bit);
+            });
+            jdbcTemplate.query("SELECT emp_id, name, experience, format FROM trainer", rs -> {
+                Row row = new Row(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getString(4));
+                row.words = coverage(subjects, row.empId);
+                rows.put(row.empId, row);
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            topicsOfSubject = subjects;
+            trainers = rows;
+            List<Runnable> replay = pendingChanges;
+            pendingChanges = null;
+            for (Runnable change : replay) {
+                change.run();
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Trainer topic matrix loaded: {} trainers, {} subjects", rows.size(), subjects.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Trainers covering at least one of the topics, best coverage first, then more experience,
+     * then lower id. Filters: minimum experience (years) and delivery format (case-insensitive).
+     */
+    public List<TrainerMatch> match(Collection<Long> topicIds, Integer minExperience, String format, int limit) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trainer topic matrix is still loading");
+        }
+        Set<Long> requested = new LinkedHashSet<>(topicIds);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one topic id is required");
+        }
+        if (requested.size() > MAX_QUERY_TOPICS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_QUERY_TOPICS + " topics per query");
+        }
+
+        lock.readLock().lock();
+        try {
+            BitSet mask = new BitSet();
+            for (Long topicId : requested) {
+                Integer bit = bitOfTopic.get(topicId);
+                if (bit != null) {
+                    mask.set(bit);
+                }
+            }
+            long[] query = mask.toLongArray();
+            int[] nonZero = nonZeroWords(query);
+
+            PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            for (Row row : trainers.values()) {
+                if (minExperience != null && row.experience < minExperience) {
+                    continue;
+                }
+                if (format != null && !format.equalsIgnoreCase(row.format)) {
+                    continue;
+                }
+                int covered = 0;
+                for (int word : nonZero) {
+                    if (word < row.words.length) {
+                        covered += Long.bitCount(row.words[word] & query[word]);
+                    }
+                }
+                if (covered == 0 || (best.size() == limit && !outranks(covered, row, best.peek()))) {
+                    continue;
+                }
+                best.add(new Candidate(row, covered));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<Candidate> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<TrainerMatch> matches = new ArrayList<>(ranked.size());
+            for (Candidate candidate : ranked) {
+                Row row = candidate.row();
+                List<Long> matched = new ArrayList<>(candidate.covered());
+                for (int word : nonZero) {
+                    if (word < row.words.length) {
+                        long bits = row.words[word] & query[word];
+                        while (bits != 0) {
+                            matched.add(topicOfBit[word * 64 + Long.numberOfTrailingZeros(bits)]);
+                            bits &= bits - 1;
+                        }
+                    }
+                }
+                matches.add(new TrainerMatch(row.empId, row.name, row.experience, row.format, candidate.covered(),
+                        requested.size(), (double) candidate.covered() / requested.size(), matched));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same order as RANKING, without building a candidate for rows that do not make the cut
+     */
+    private static boolean outranks(int covered, Row row, Candidate worst) {
+        if (covered != worst.covered()) {
+            return covered > worst.covered();
+        }
+        if (row.experience != worst.row().experience) {
+            return row.experience > worst.row().experience;
+        }
+        return row.empId < worst.row().empId;
+    }
+
+    public void trainerSaved(Trainer trainer) {
+        change(() -> {
+            Row row = new Row(trainer.getEmpId(), trainer.getName(), trainer.getExperience(), trainer.getFormat());
+            row.words = coverage(topicsOfSubject, row.empId);
+            trainers.put(row.empId, row);
+        });
+    }
+
+    public void trainerRemoved(long empId) {
+        change(() -> trainers.remove(empId));
+    }
+
+    public void topicsLinked(long subjectId, Collection<Long> topicIds) {
+        change(() -> {
+            BitSet topics = topicsOfSubject.computeIfAbsent(subjectId, id -> new BitSet());
+            for (Long topicId : topicIds) {
+                topics.set(bitOf(topicId));
+            }
+            recomputeTrainersOf(subjectId);
+        });
+    }
+
+    public void topicUnlinked(long subjectId, long topicId) {
+        change(() -> {
+            BitSet topics = topicsOfSubject.get(subjectId);
+            Integer bit = bitOfTopic.get(topicId);
+            if (topics != null && bit != null) {
+                topics.clear(bit);
+                recomputeTrainersOf(subjectId);
+            }
+        });
+    }
+
+    public void subjectRemoved(long subjectId) {
+        change(() -> {
+            topicsOfSubject.remove(subjectId);
+            recomputeTrainersOf(subjectId);
+        });
+    }
+
+    private void trainerSubjectsChanged(long empId) {
+        change(() -> {
+            Row row = trainers.get(empId);
+            if (row != null) {
+                row.words = coverage(topicsOfSubject, empId);
+            }
+        });
+    }
+
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recomputeTrainersOf(long subjectId) {
+        for (long empId : assignmentIndex.trainersOf(subjectId)) {
+            Row row = trainers.get(empId);
+            if (row != null) {
+                row.words = coverage(topicsOfSubject, empId);
+            }
+        }
+    }
+
+    private long[] coverage(Map<Long, BitSet> subjects, long empId) {
+        BitSet union = new BitSet();
+        for (long subjectId : assignmentIndex.subjectsOf(empId)) {
+            BitSet topics = subjects.get(subjectId);
+            if (topics != null) {
+                union.or(topics);
+            }
+        }
+        return union.toLongArray();
+    }
+
+    /**
+     * Bit position of a topic, assigned on first sight; caller holds the write lock
+     */
+    private int bitOf(long topicId) {
+        Integer bit = bitOfTopic.get(topicId);
+        if (bit == null) {
+            bit = bitOfTopic.size();
+            bitOfTopic.put(topicId, bit);
+            if (bit == topicOfBit.length) {
+                topicOfBit = Arrays.copyOf(topicOfBit, bit * 2);
+            }
+            topicOfBit[bit] = topicId;
+        }
+        return bit;
+    }
+
+    private static int[] nonZeroWords(long[] words) {
+        int count = 0;
+        int[] indexes = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != 0) {
+                indexes[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indexes, count);
+    }
+
+    private static final class Row {
+        private final long empId;
+        private final String name;
+        private final int experience;
+        private final String format;
+        // covered topic bits, replaced as a whole whenever the trainer's subjects change
+        private long[] words = new long[0];
+
+        Row(long empId, String name, int experience, String format) {
+            this.empId = empId;
+            this.name = name;
+            this.experience = experience;
+            this.format = format;
+        }
+    }
+
+    private record Candidate(Row row, int covered) {
+    }
+}
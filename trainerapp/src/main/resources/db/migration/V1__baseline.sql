@@ -0,0 +1,55 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it from the entities.
+-- IF NOT EXISTS lets databases that were created that way adopt the migrations: Flyway
+-- baselines them at version 0 (spring.flyway.baseline-version) and this script changes nothing.
+
+CREATE TABLE IF NOT EXISTS subject (
+    subject_id BIGINT NOT NULL AUTO_INCREMENT,
+    description VARCHAR(255),
+    subject_name VARCHAR(255),
+    PRIMARY KEY (subject_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS topic (
+    topic_id BIGINT NOT NULL AUTO_INCREMENT,
+    description VARCHAR(255),
+    topic_name VARCHAR(255),
+    PRIMARY KEY (topic_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS trainer (
+    emp_id BIGINT NOT NULL AUTO_INCREMENT,
+    address VARCHAR(255),
+    email VARCHAR(255),
+    experience INTEGER NOT NULL,
+    format VARCHAR(255),
+    mobile_number VARCHAR(255),
+    name VARCHAR(255),
+    subjects JSON,
+    PRIMARY KEY (emp_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS subject_topic (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    subject_id BIGINT,
+    topic_id BIGINT,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS trainer_subject (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    emp_id BIGINT NOT NULL,
+    subject_id BIGINT NOT NULL,
+    subject_name VARCHAR(255) NOT NULL,
+    trainer_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_trainer_subject_emp_subject UNIQUE (emp_id, subject_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS name_change_outbox (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    created_at BIGINT NOT NULL,
+    entity_id BIGINT NOT NULL,
+    entity_type VARCHAR(16) NOT NULL,
+    new_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
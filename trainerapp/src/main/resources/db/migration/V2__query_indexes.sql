@@ -0,0 +1,22 @@
+-- Indexes for the repository queries; each is checked by QueryPlanTest against
+-- src/test/resources/db/query-plan-checks.sql.
+-- trainer_subject lookups by emp_id are already covered by the (emp_id, subject_id) unique key,
+-- which InnoDB extends with the primary key id.
+
+-- TrainerRepository.findTrainersBySubjectName
+CREATE INDEX idx_subject_name ON subject (subject_name);
+
+-- TopicRepository.findIdsByTopicNameIn (import topic reuse)
+CREATE INDEX idx_topic_name ON topic (topic_name);
+
+-- Everything keyed by subject on trainer_subject: findEmpIdsBySubjectId, countBySubjectId,
+-- deleteBySubjectIdIn, moveSubject, deleteOverlapping, renameSubject, the per-subject statistics.
+-- Covering for the emp_id lookups, so the rows themselves are never read.
+CREATE INDEX idx_trainer_subject_subject_emp ON trainer_subject (subject_id, emp_id);
+
+-- subject_topic joined from the topic side: countWorkloadPerTopic
+CREATE INDEX idx_subject_topic_topic_subject ON subject_topic (topic_id, subject_id);
+
+-- NameChangeRepository.deletePropagated and findOldestCreatedAt
+CREATE INDEX idx_name_change_entity ON name_change_outbox (entity_type, entity_id, id);
+CREATE INDEX idx_name_change_created ON name_change_outbox (created_at);
@@ -0,0 +1,33 @@
+-- Constraints the application has relied on without the database enforcing them.
+-- Rows that would violate them are removed first: duplicate subject/topic links (the oldest is
+-- kept) and links pointing at deleted rows, which no endpoint could return anyway.
+-- Constraint names differ from the ones the old hand-run scripts used, so databases set up
+-- with those scripts migrate without name clashes.
+
+DELETE FROM subject_topic
+WHERE subject_id IS NULL
+   OR topic_id IS NULL
+   OR NOT EXISTS (SELECT 1 FROM subject s WHERE s.subject_id = subject_topic.subject_id)
+   OR NOT EXISTS (SELECT 1 FROM topic t WHERE t.topic_id = subject_topic.topic_id);
+
+-- the derived table lets MySQL read subject_topic while deleting from it
+DELETE FROM subject_topic
+WHERE id NOT IN (
+    SELECT id FROM (SELECT MIN(id) AS id FROM subject_topic GROUP BY subject_id, topic_id) AS keep_rows
+);
+
+DELETE FROM trainer_subject
+WHERE NOT EXISTS (SELECT 1 FROM trainer t WHERE t.emp_id = trainer_subject.emp_id)
+   OR NOT EXISTS (SELECT 1 FROM subject s WHERE s.subject_id = trainer_subject.subject_id);
+
+ALTER TABLE subject_topic MODIFY subject_id BIGINT NOT NULL;
+ALTER TABLE subject_topic MODIFY topic_id BIGINT NOT NULL;
+
+-- also the index for findBySubjectId, findBySubjectIdAndTopicId, findTopicIdsBySubjectId
+-- and deleteBySubjectIdIn
+ALTER TABLE subject_topic ADD CONSTRAINT uk_subject_topic UNIQUE (subject_id, topic_id);
+
+ALTER TABLE subject_topic ADD CONSTRAINT fk_subject_topic_subject FOREIGN KEY (subject_id) REFERENCES subject (subject_id);
+ALTER TABLE subject_topic ADD CONSTRAINT fk_subject_topic_topic FOREIGN KEY (topic_id) REFERENCES topic (topic_id);
+ALTER TABLE trainer_subject ADD CONSTRAINT fk_trainer_subject_trainer FOREIGN KEY (emp_id) REFERENCES trainer (emp_id);
+ALTER TABLE trainer_subject ADD CONSTRAINT fk_trainer_subject_subject_id FOREIGN KEY (subject_id) REFERENCES subject (subject_id);
@@ -0,0 +1,3 @@
+-- NameChangeRepository.deletePropagated now deletes the outbox rows it read by primary key, so
+-- the (entity_type, entity_id, id) index has no reader left and only slows down renames.
+DROP INDEX idx_name_change_entity ON name_change_outbox;
@@ -0,0 +1,45 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.AdmissionControl;
+import com.example.trainerapp.service.AdmissionControl.EndpointClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    @Test
+    void classifiesByMethodAndPath() {
+        assertThat(AdmissionControlFilter.classify("GET", "/subject/7")).isEqualTo(EndpointClass.POINT);
+        assertThat(AdmissionControlFilter.classify("GET", "/trainer-subject/count/trainer/3")).isEqualTo(EndpointClass.POINT);
+        assertThat(AdmissionControlFilter.classify("GET", "/subject")).isEqualTo(EndpointClass.SCAN);
+        assertThat(AdmissionControlFilter.classify("GET", "/subject/7/detail")).isEqualTo(EndpointClass.SCAN);
+        assertThat(AdmissionControlFilter.classify("GET", "/export/trainers")).isEqualTo(EndpointClass.EXPORT);
+        assertThat(AdmissionControlFilter.classify("POST", "/subject")).isEqualTo(EndpointClass.WRITE);
+    }
+
+    @Test
+    void compositePagesCountOneConnectionPerQuery() {
+        assertThat(AdmissionControlFilter.connections(EndpointClass.SCAN, "/subject/7/detail"))
+                .isEqualTo(AdmissionControlFilter.COMPOSITE_CONNECTIONS);
+        assertThat(AdmissionControlFilter.connections(EndpointClass.SCAN, "/trainer/3/profile"))
+                .isEqualTo(AdmissionControlFilter.COMPOSITE_CONNECTIONS);
+        assertThat(AdmissionControlFilter.connections(EndpointClass.SCAN, "/subject/7/topics")).isEqualTo(1);
+        assertThat(AdmissionControlFilter.connections(EndpointClass.SCAN, "/subject")).isEqualTo(1);
+    }
+
+    @Test
+    void preflightAndActuatorAreNotLimited() {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionControl(new MockEnvironment()), Duration.ofSeconds(1));
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/subject");
+        preflight.addHeader("Access-Control-Request-Method", "POST");
+
+        assertThat(filter.shouldNotFilter(preflight)).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/actuator/health"))).isTrue();
+        assertThat(filter.shouldNotFilter(new MockHttpServletRequest("POST", "/subject"))).isFalse();
+    }
+}
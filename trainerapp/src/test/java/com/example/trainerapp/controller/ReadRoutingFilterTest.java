@@ -0,0 +1,67 @@
+package com.example.trainerapp.controller;
+
+import com.example.trainerapp.service.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadRoutingFilterTest {
+
+    private final ReadRoutingFilter filter = new ReadRoutingFilter(Duration.ofSeconds(5));
+
+    @Test
+    void writesPinTheClientByCookieAndHeader() throws Exception {
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/subject");
+        post.addHeader(HttpHeaders.ORIGIN, "https://frontend.example.com");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(routeOf(post, response)).isEqualTo(ReadRouting.Target.PRIMARY);
+        String until = response.getHeader(ReadRoutingFilter.PRIMARY_UNTIL_HEADER);
+        assertThat(Long.parseLong(until)).isGreaterThan(System.currentTimeMillis());
+        assertThat(response.getCookie(ReadRoutingFilter.PRIMARY_UNTIL_COOKIE).getValue()).isEqualTo(until);
+        assertThat(response.getHeader(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS)).isEqualTo(ReadRoutingFilter.PRIMARY_UNTIL_HEADER);
+    }
+
+    @Test
+    void readsUseReplicaUnlessPinned() throws Exception {
+        String future = Long.toString(System.currentTimeMillis() + 60_000);
+        String past = Long.toString(System.currentTimeMillis() - 1);
+
+        assertThat(routeOf(new MockHttpServletRequest("GET", "/subject"), new MockHttpServletResponse()))
+                .isEqualTo(ReadRouting.Target.REPLICA);
+
+        MockHttpServletRequest echoed = new MockHttpServletRequest("GET", "/subject");
+        echoed.addHeader(ReadRoutingFilter.PRIMARY_UNTIL_HEADER, future);
+        assertThat(routeOf(echoed, new MockHttpServletResponse())).isEqualTo(ReadRouting.Target.PRIMARY);
+
+        MockHttpServletRequest withCookie = new MockHttpServletRequest("GET", "/subject");
+        withCookie.setCookies(new Cookie(ReadRoutingFilter.PRIMARY_UNTIL_COOKIE, future));
+        assertThat(routeOf(withCookie, new MockHttpServletResponse())).isEqualTo(ReadRouting.Target.PRIMARY);
+
+        MockHttpServletRequest expired = new MockHttpServletRequest("GET", "/subject");
+        expired.addHeader(ReadRoutingFilter.PRIMARY_UNTIL_HEADER, past);
+        expired.setCookies(new Cookie(ReadRoutingFilter.PRIMARY_UNTIL_COOKIE, "garbage"));
+        assertThat(routeOf(expired, new MockHttpServletResponse())).isEqualTo(ReadRouting.Target.REPLICA);
+    }
+
+    @Test
+    void routingIsClearedAfterTheRequest() throws Exception {
+        routeOf(new MockHttpServletRequest("GET", "/subject"), new MockHttpServletResponse());
+        assertThat(ReadRouting.current()).isEqualTo(ReadRouting.Target.PRIMARY);
+    }
+
+    private ReadRouting.Target routeOf(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        AtomicReference<ReadRouting.Target> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> seen.set(ReadRouting.current());
+        filter.doFilter(request, response, chain);
+        return seen.get();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.trainerapp.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query plans of every repository query (db/query-plan-checks.sql) on H2 in MySQL mode, first on
+ * the baseline schema (V1) and then after all migrations. Fails if, after the migrations, a query
+ * scans a table it is not declared to scan; the message gives the V1 plan for comparison.
+ *
+ * The same checks run on MySQL when -Dqueryplans.mysql.url names a scratch database (user and
+ * password from queryplans.mysql.user and .password). That database is cleaned, migrated and
+ * seeded, e.g. mvn test -Dtest=QueryPlanTest -Dqueryplans.mysql.url=jdbc:mysql://localhost:3306/plans
+ */
+class QueryPlanTest {
+
+    // a table reference and H2's comment on how it is read, e.g. "public"."topic" /* public.idx_topic_name: topic_name = ? */;
+    // tableScan, or an index without a condition that is not a MIN/MAX direct lookup, reads every row
+    private static final Pattern TABLE_ACCESS = Pattern.compile(
+            "\"(\\w+)\"(?:\\s+\"\\w+\")?\\s*/\\* (?:\\w+\\.)+(\\w+)(:[^*]*)? \\*/(\\s*/\\* direct lookup \\*/)?");
+    // a table and its optional alias; MySQL's EXPLAIN names tables by alias
+    private static final Pattern TABLE_REFERENCE = Pattern.compile("(?i)\\b(?:FROM|JOIN)\\s+(\\w+)(?:\\s+(?:AS\\s+)?(\\w+))?");
+    private static final Set<String> KEYWORDS = Set.of("where", "join", "left", "inner", "on", "order", "group", "limit", "for");
+
+    private static List<Check> checks;
+    private static final Map<String, Set<String>> before = new LinkedHashMap<>();
+    private static final Map<String, Set<String>> after = new LinkedHashMap<>();
+
+    @BeforeAll
+    static void plans() throws IOException {
+        checks = parse();
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        seed(jdbc);
+        jdbc.execute("ANALYZE");
+        explainAll(jdbc, before);
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc.execute("ANALYZE");
+        explainAll(jdbc, after);
+    }
+
+    @Test
+    void migrationsKeepEveryRow() {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", ""));
+        // the seed is consistent, so the constraint migration has nothing to clean up
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM subject_topic", Long.class)).isEqualTo(1000L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM trainer_subject", Long.class)).isEqualTo(2000L);
+    }
+
+    @Test
+    void repositoryQueriesUseIndexes() {
+        assertThat(violations(after, before)).as("full scans on H2 after the migrations").isEmpty();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "queryplans.mysql.url", matches = ".+")
+    void repositoryQueriesUseIndexesOnMySql() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(System.getProperty("queryplans.mysql.url"),
+                System.getProperty("queryplans.mysql.user", "root"), System.getProperty("queryplans.mysql.password", ""));
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        seed(jdbc);
+        jdbc.execute("ANALYZE TABLE trainer, subject, topic, subject_topic, trainer_subject, name_change_outbox");
+
+        Map<String, Set<String>> plans = new LinkedHashMap<>();
+        for (Check check : checks) {
+            Map<String, String> tables = tablesByAlias(check.sql());
+            Set<String> scanned = new TreeSet<>();
+            // ALL reads the table, index reads a whole index
+            jdbc.query("EXPLAIN " + check.sql(), rs -> {
+                String type = rs.getString("type");
+                if ("ALL".equals(type) || "index".equals(type)) {
+                    String table = rs.getString("table");
+                    scanned.add(tables.getOrDefault(table, table));
+                }
+            });
+            plans.put(check.name(), scanned);
+        }
+        assertThat(violations(plans, Map.of())).as("full scans on MySQL").isEmpty();
+    }
+
+    /**
+     * Checks whose plan scans an undeclared table, with the baseline plan when there is one
+     */
+    private static List<String> violations(Map<String, Set<String>> plans, Map<String, Set<String>> baseline) {
+        List<String> violations = new ArrayList<>();
+        for (Check check : checks) {
+            Set<String> unexpected = new TreeSet<>(plans.get(check.name()));
+            unexpected.removeAll(check.allowedScans());
+            if (!unexpected.isEmpty()) {
+                violations.add(check.name() + " scans " + unexpected
+                        + (baseline.containsKey(check.name()) ? " (on V1: scans " + baseline.get(check.name()) + ")" : ""));
+            }
+        }
+        return violations;
+    }
+
+    private static Map<String, String> tablesByAlias(String sql) {
+        Map<String, String> tables = new HashMap<>();
+        Matcher matcher = TABLE_REFERENCE.matcher(sql);
+        while (matcher.find()) {
+            String table = matcher.group(1).toLowerCase(Locale.ROOT);
+            String alias = matcher.group(2);
+            tables.put(alias == null || KEYWORDS.contains(alias.toLowerCase(Locale.ROOT)) ? table : alias, table);
+        }
+        return tables;
+    }
+
+    private static void explainAll(JdbcTemplate jdbc, Map<String, Set<String>> plans) {
+        for (Check check : checks) {
+            String plan = jdbc.queryForObject("EXPLAIN " + check.sql(), String.class);
+            Set<String> scanned = new TreeSet<>();
+            Matcher matcher = TABLE_ACCESS.matcher(plan);
+            while (matcher.find()) {
+                if (matcher.group(2).equalsIgnoreCase("tableScan") || (matcher.group(3) == null && matcher.group(4) == null)) {
+                    scanned.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                }
+            }
+            plans.put(check.name(), scanned);
+        }
+    }
+
+    /**
+     * A consistent catalog (no duplicate links, no dangling ids) large enough for the optimizer
+     * to prefer indexes
+     */
+    private static void seed(JdbcTemplate jdbc) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            rows.add(new Object[]{"trainer-" + i, "trainer" + i + "@example.com", i % 20});
+        }
+        jdbc.batchUpdate("INSERT INTO trainer (name, email, experience) VALUES (?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= 100; i++) {
+            rows.add(new Object[]{"subject-" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO subject (subject_name) VALUES (?)", rows);
+        rows.clear();
+        for (int i = 1; i <= 300; i++) {
+            rows.add(new Object[]{"topic-" + i});
+        }
+        jdbc.batchUpdate("INSERT INTO topic (topic_name) VALUES (?)", rows);
+        rows.clear();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(new Object[]{i % 100 + 1, i / 100 * 30 + i % 30 + 1});
+        }
+        jdbc.batchUpdate("INSERT INTO subject_topic (subject_id, topic_id) VALUES (?, ?)", rows);
+        rows.clear();
+        for (int i = 0; i < 2000; i++) {
+            long empId = i % 200 + 1;
+            long subjectId = (i / 200 * 13 + empId) % 100 + 1;
+            rows.add(new Object[]{empId, subjectId, "trainer-" + empId, "subject-" + subjectId});
+        }
+        jdbc.batchUpdate("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (?, ?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= 50; i++) {
+            rows.add(new Object[]{i % 2 == 0 ? "SUBJECT" : "TRAINER", i, "renamed-" + i, i * 1000L});
+        }
+        jdbc.batchUpdate("INSERT INTO name_change_outbox (entity_type, entity_id, new_name, created_at) VALUES (?, ?, ?, ?)", rows);
+    }
+
+    private static List<Check> parse() throws IOException {
+        String script;
+        try (InputStream in = QueryPlanTest.class.getResourceAsStream("/db/query-plan-checks.sql")) {
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<Check> parsed = new ArrayList<>();
+        String name = null;
+        Set<String> scans = new TreeSet<>();
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("-- scan:")) {
+                for (String table : trimmed.substring("-- scan:".length()).trim().split("\\s+")) {
+                    scans.add(table);
+                }
+            } else if (trimmed.startsWith("-- ") && trimmed.matches("-- \\w+Repository\\.\\w+")) {
+                name = trimmed.substring(3);
+            } else if (!trimmed.startsWith("--") && !trimmed.isEmpty()) {
+                sql.append(trimmed).append(' ');
+                if (trimmed.endsWith(";")) {
+                    String statement = sql.toString().trim();
+                    parsed.add(new Check(name, statement.substring(0, statement.length() - 1), scans));
+                    name = null;
+                    scans = new TreeSet<>();
+                    sql.setLength(0);
+                }
+            }
+        }
+        return parsed;
+    }
+
+    private record Check(String name, String sql, Set<String> allowedScans) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.trainerapp.repository;
+
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.SubjectMoveResult;
+import com.example.trainerapp.service.AssignmentIndex;
+import com.example.trainerapp.service.EntityCache;
+import com.example.trainerapp.service.SingleFlight;
+import com.example.trainerapp.service.TrainerSubjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Moving the assignments of subject 10 (Java) to subject 20 (Spring) on H2 in MySQL mode with the
+ * Flyway schema. Trainers 1, 2 and 3 teach Java; trainers 1 and 2 already teach Spring.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:move;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the move runs in its own transactions, as it does behind the controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrainerSubjectRepositoryTest {
+
+    @Autowired
+    private TrainerSubjectRepository trainerSubjectRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM trainer_subject");
+        jdbc.update("DELETE FROM subject");
+        jdbc.update("DELETE FROM trainer");
+        jdbc.update("INSERT INTO trainer (emp_id, name, email, experience) VALUES "
+                + "(1, 'Ada', 'ada@example.com', 5), (2, 'Bob', 'bob@example.com', 3), (3, 'Cy', 'cy@example.com', 1)");
+        jdbc.update("INSERT INTO subject (subject_id, subject_name) VALUES (10, 'Java'), (20, 'Spring')");
+        jdbc.update("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES "
+                + "(1, 10, 'Ada', 'Java'), (2, 10, 'Bob', 'Java'), (3, 10, 'Cy', 'Java'), (1, 20, 'Ada', 'Spring'), (2, 20, 'Bob', 'Spring')");
+    }
+
+    @Test
+    void overlappingAssignmentsAreDeletedBeforeTheRestMove() {
+        assertThat(trainerSubjectRepository.deleteOverlapping(10L, 20L)).isEqualTo(2);
+        assertThat(trainerSubjectRepository.moveSubject(10L, 20L, "Spring")).isEqualTo(1);
+
+        assertMoved();
+    }
+
+    @Test
+    void moveAssignmentsMergesIntoTheTargetAndUpdatesTheIndex() throws Exception {
+        AssignmentIndex assignmentIndex = new AssignmentIndex(jdbc);
+        assignmentIndex.load();
+        TrainerSubjectService service = service(assignmentIndex);
+
+        SubjectMoveResult result = service.moveAssignments(10L, 20L);
+
+        assertThat(result.getMergedDuplicates()).isEqualTo(2);
+        assertThat(result.getMoved()).isEqualTo(1);
+        assertMoved();
+        assertThat(assignmentIndex.trainersOf(20)).containsExactly(1, 2, 3);
+        assertThat(assignmentIndex.subjectDegree(10)).isZero();
+        assertThat(assignmentIndex.trainerDegree(1)).isEqualTo(1);
+        assertThat(assignmentIndex.size()).isEqualTo(3);
+    }
+
+    private void assertMoved() {
+        assertThat(trainerSubjectRepository.countBySubjectId(10L)).isZero();
+        assertThat(trainerSubjectRepository.countBySubjectId(20L)).isEqualTo(3);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM (SELECT emp_id, subject_id FROM trainer_subject "
+                + "GROUP BY emp_id, subject_id HAVING COUNT(*) > 1) AS duplicates", Long.class)).isZero();
+        assertThat(jdbc.queryForList("SELECT subject_name FROM trainer_subject WHERE emp_id = 3", String.class))
+                .containsExactly("Spring");
+    }
+
+    private TrainerSubjectService service(AssignmentIndex assignmentIndex) {
+        Subject spring = new Subject();
+        spring.setSubjectId(20L);
+        spring.setSubjectName("Spring");
+        EntityCache entityCache = mock(EntityCache.class);
+        when(entityCache.findSubject(20L)).thenReturn(Optional.of(spring));
+
+        TrainerSubjectService service = new TrainerSubjectService();
+        ReflectionTestUtils.setField(service, "trainerSubjectRepository", trainerSubjectRepository);
+        ReflectionTestUtils.setField(service, "entityCache", entityCache);
+        ReflectionTestUtils.setField(service, "assignmentIndex", assignmentIndex);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(service, "singleFlight", new SingleFlight());
+        return service;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.service.AdmissionControl.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofMinutes(1).toNanos();
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void stop() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void queuesOverTheLimitAndRejectsWhenTheQueueIsFull() throws Exception {
+        AdmissionControl admission = scans(2, 1, Duration.ofSeconds(5));
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isTrue();
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isTrue();
+
+        Future<Boolean> waiting = callers.submit(() -> admission.acquire(EndpointClass.SCAN, 1));
+        awaitQueued(admission);
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).as("queue full").isFalse();
+
+        admission.release(EndpointClass.SCAN, 1, FAST, false);
+        assertThat(waiting.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void waitersGiveUpAfterMaxWait() {
+        AdmissionControl admission = scans(1, 5, Duration.ofMillis(50));
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isTrue();
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isFalse();
+    }
+
+    @Test
+    void slowOrFailedRequestsCutTheLimitAndFastOnesRaiseIt() {
+        AdmissionControl admission = scans(4, 0, Duration.ZERO);
+        admission.acquire(EndpointClass.SCAN, 1);
+        admission.release(EndpointClass.SCAN, 1, SLOW, false);
+        assertThat(admission.limit(EndpointClass.SCAN)).isEqualTo(3);
+        admission.acquire(EndpointClass.SCAN, 1);
+        admission.release(EndpointClass.SCAN, 1, FAST, true);
+        assertThat(admission.limit(EndpointClass.SCAN)).isEqualTo(3);
+
+        // 3.24 after the two cuts; fast requests with the limit at least half used add 1/limit each
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j < 3; j++) {
+                admission.acquire(EndpointClass.SCAN, 1);
+            }
+            for (int j = 0; j < 3; j++) {
+                admission.release(EndpointClass.SCAN, 1, FAST, false);
+            }
+        }
+        assertThat(admission.limit(EndpointClass.SCAN)).isEqualTo(6);
+    }
+
+    @Test
+    void limitsCountConnections() {
+        AdmissionControl admission = scans(4, 0, Duration.ZERO);
+        assertThat(admission.acquire(EndpointClass.SCAN, 4)).isTrue();
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isFalse();
+        admission.release(EndpointClass.SCAN, 4, FAST, false);
+        assertThat(admission.acquire(EndpointClass.SCAN, 3)).isTrue();
+        assertThat(admission.acquire(EndpointClass.SCAN, 1)).isTrue();
+
+        // wider than the limit: admitted only when nothing else runs
+        AdmissionControl narrow = scans(2, 0, Duration.ZERO);
+        assertThat(narrow.acquire(EndpointClass.SCAN, 4)).isTrue();
+        assertThat(narrow.acquire(EndpointClass.SCAN, 1)).isFalse();
+    }
+
+    @Test
+    void exportsAreNotCutForTakingLong() {
+        AdmissionControl admission = new AdmissionControl(new MockEnvironment());
+        admission.acquire(EndpointClass.EXPORT, 1);
+        admission.release(EndpointClass.EXPORT, 1, SLOW, false);
+        assertThat(admission.limit(EndpointClass.EXPORT)).isEqualTo(2);
+
+        admission.acquire(EndpointClass.EXPORT, 1);
+        admission.release(EndpointClass.EXPORT, 1, FAST, true);
+        assertThat(admission.limit(EndpointClass.EXPORT)).isEqualTo(1);
+    }
+
+    private static AdmissionControl scans(int limit, int queueCapacity, Duration maxWait) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("trainerapp.admission.scan.initial-limit", Integer.toString(limit))
+                .withProperty("trainerapp.admission.scan.min-limit", "1")
+                .withProperty("trainerapp.admission.scan.max-limit", "6")
+                .withProperty("trainerapp.admission.scan.queue-capacity", Integer.toString(queueCapacity))
+                .withProperty("trainerapp.admission.scan.max-wait", maxWait.toMillis() + "ms")
+                .withProperty("trainerapp.admission.scan.target-latency", "1s");
+        // as in the application: durations like 50ms
+        environment.setConversionService(new ApplicationConversionService());
+        return new AdmissionControl(environment);
+    }
+
+    private void awaitQueued(AdmissionControl admission) throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        admission.bindTo(registry);
+        for (int i = 0; i < 500 && registry.get("trainerapp.admission.queued").tag("class", "scan").gauge().value() < 1; i++) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.trainerapp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trainer 1 teaches subjects 10 and 20, trainer 2 teaches subject 10.
+ */
+class AssignmentIndexTest {
+
+    private JdbcTemplate jdbc;
+    // runs once, right after the next load has read its rows
+    private Runnable afterRead;
+    private AssignmentIndex index;
+    private final List<Long> notified = new ArrayList<>();
+
+    @BeforeEach
+    void database() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:assignments" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public void query(PreparedStatementCreator creator, RowCallbackHandler handler) {
+                super.query(creator, handler);
+                if (afterRead != null) {
+                    Runnable change = afterRead;
+                    afterRead = null;
+                    change.run();
+                }
+            }
+        };
+        jdbc.execute("CREATE TABLE trainer_subject (emp_id BIGINT, subject_id BIGINT)");
+        jdbc.update("INSERT INTO trainer_subject VALUES (1, 10), (1, 20), (2, 10)");
+
+        index = new AssignmentIndex(jdbc);
+        index.addTrainerListener(notified::add);
+        index.load();
+    }
+
+    @Test
+    void loadsBothDirections() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.isAssigned(1, 20)).isTrue();
+        assertThat(index.isAssigned(2, 20)).isFalse();
+        assertThat(index.subjectsOf(1)).containsExactly(10, 20);
+        assertThat(index.trainersOf(10)).containsExactly(1, 2);
+        assertThat(index.trainerDegree(1)).isEqualTo(2);
+        assertThat(index.subjectDegree(20)).isEqualTo(1);
+        assertThat(notified).isEmpty();
+    }
+
+    @Test
+    void refreshesFollowTheCommittedRowsWhateverOrderTheyReportIn() {
+        // an assign of (2, 20) commits, then a delete of it commits; their refreshes arrive the other way round
+        jdbc.update("INSERT INTO trainer_subject VALUES (2, 20)");
+        jdbc.update("DELETE FROM trainer_subject WHERE emp_id = 2 AND subject_id = 20");
+        index.refreshTrainers(List.of(2L));
+        index.refreshTrainers(List.of(2L));
+        assertThat(index.isAssigned(2, 20)).isFalse();
+        assertThat(index.subjectDegree(20)).isEqualTo(1);
+
+        // subject 20 merged into subject 10: trainer 1 already had it
+        jdbc.update("DELETE FROM trainer_subject WHERE subject_id = 20");
+        index.refreshSubjects(List.of(20L, 10L));
+        assertThat(index.subjectsOf(1)).containsExactly(10);
+        assertThat(index.trainersOf(20)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(notified).containsExactly(2L, 2L, 1L, 2L);
+    }
+
+    @Test
+    void writesDuringTheLoadAreReplayed() {
+        notified.clear();
+        afterRead = () -> {
+            // neither change is in the rows the load has just read
+            jdbc.update("DELETE FROM trainer_subject WHERE emp_id = 1 AND subject_id = 20");
+            index.refreshTrainers(List.of(1L));
+            jdbc.update("INSERT INTO trainer_subject VALUES (3, 20)");
+            index.refreshSubjects(List.of(20L));
+            index.add(4, 40);
+        };
+        index.load();
+
+        assertThat(index.subjectsOf(1)).containsExactly(10);
+        assertThat(index.trainersOf(20)).containsExactly(3);
+        assertThat(index.isAssigned(4, 40)).isTrue();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    void reloadPicksUpOtherInstancesWritesAndReportsTheirTrainers() {
+        jdbc.update("INSERT INTO trainer_subject VALUES (2, 20), (5, 10)");
+        jdbc.update("DELETE FROM trainer_subject WHERE emp_id = 1 AND subject_id = 10");
+        assertThat(index.isAssigned(2, 20)).isFalse();
+
+        index.reload();
+
+        assertThat(index.isAssigned(2, 20)).isTrue();
+        assertThat(index.trainersOf(10)).containsExactly(2, 5);
+        assertThat(index.subjectsOf(1)).containsExactly(20);
+        assertThat(notified).containsExactlyInAnyOrder(1L, 2L, 5L);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.trainerapp.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionsTest {
+
+    private final CatalogVersions versions = new CatalogVersions(Duration.ZERO);
+
+    @Test
+    void representationFollowsTheAcceptHeader() {
+        assertThat(CatalogVersions.representation(null)).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(CatalogVersions.representation("*/*")).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(CatalogVersions.representation("application/cbor")).isEqualTo(MediaType.APPLICATION_CBOR);
+        assertThat(CatalogVersions.representation("application/json;q=0.5, application/x-jackson-smile").getSubtype())
+                .isEqualTo("x-jackson-smile");
+        assertThat(CatalogVersions.representation("text/html, not a type")).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void aJsonEtagDoesNotValidateACborRequest() {
+        MockHttpServletResponse json = get("application/json", null);
+        String jsonEtag = json.getHeader(HttpHeaders.ETAG);
+        assertThat(json.getStatus()).isEqualTo(200);
+        assertThat(json.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+        MockHttpServletResponse cbor = get("application/cbor", jsonEtag);
+        assertThat(cbor.getStatus()).isEqualTo(200);
+        assertThat(cbor.getHeader(HttpHeaders.ETAG)).isNotEqualTo(jsonEtag);
+
+        MockHttpServletResponse revalidated = get("application/cbor", cbor.getHeader(HttpHeaders.ETAG));
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void maxStalenessBoundsEtagsAndCaching() throws InterruptedException {
+        assertThat(versions.cacheControl().getHeaderValue()).isEqualTo("no-cache");
+
+        CatalogVersions windowed = new CatalogVersions(Duration.ofMillis(200));
+        String etag = windowed.etag(MediaType.APPLICATION_JSON, CatalogVersions.TOPICS);
+        assertThat(windowed.cacheControl().getHeaderValue()).isEqualTo("max-age=0, must-revalidate");
+        Thread.sleep(250);
+        assertThat(windowed.etag(MediaType.APPLICATION_JSON, CatalogVersions.TOPICS)).isNotEqualTo(etag);
+    }
+
+    private MockHttpServletResponse get(String accept, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/topic");
+        request.addHeader(HttpHeaders.ACCEPT, accept);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        versions.checkNotModified(new ServletWebRequest(request, response), CatalogVersions.TOPICS);
+        return response;
+    }
+}
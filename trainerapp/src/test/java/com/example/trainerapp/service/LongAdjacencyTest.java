@@ -0,0 +1,95 @@
+package com.example.trainerapp.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongAdjacencyTest {
+
+    @Test
+    void keepsNeighboursSortedAndUnique() {
+        LongAdjacency adjacency = new LongAdjacency();
+        assertThat(adjacency.add(1, 30)).isTrue();
+        assertThat(adjacency.add(1, 10)).isTrue();
+        assertThat(adjacency.add(1, 20)).isTrue();
+        assertThat(adjacency.add(1, 20)).isFalse();
+
+        assertThat(adjacency.neighbours(1)).containsExactly(10, 20, 30);
+        assertThat(adjacency.degree(1)).isEqualTo(3);
+        assertThat(adjacency.contains(1, 20)).isTrue();
+        assertThat(adjacency.contains(2, 20)).isFalse();
+        assertThat(adjacency.edgeCount()).isEqualTo(3);
+        assertThatThrownBy(() -> adjacency.add(0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void removesEdgesAndKeys() {
+        LongAdjacency adjacency = new LongAdjacency();
+        adjacency.add(1, 10);
+        adjacency.add(1, 20);
+        adjacency.add(2, 10);
+
+        assertThat(adjacency.remove(1, 10)).isTrue();
+        assertThat(adjacency.remove(1, 10)).isFalse();
+        assertThat(adjacency.neighbours(1)).containsExactly(20);
+
+        assertThat(adjacency.removeKey(2)).containsExactly(10);
+        assertThat(adjacency.removeKey(2)).isEmpty();
+        assertThat(adjacency.degree(2)).isZero();
+        assertThat(adjacency.edgeCount()).isEqualTo(1);
+        assertThat(adjacency.keyCount()).isEqualTo(1);
+
+        // an emptied key comes back like a new one
+        adjacency.add(2, 30);
+        assertThat(adjacency.neighbours(2)).containsExactly(30);
+        assertThat(adjacency.keyCount()).isEqualTo(2);
+    }
+
+    @Test
+    void growsWithLiveKeysAndReclaimsRemovedOnes() {
+        LongAdjacency adjacency = new LongAdjacency(16);
+        for (long key = 1; key <= 1000; key++) {
+            adjacency.add(key, key * 10);
+        }
+        for (long key = 1; key <= 1000; key++) {
+            assertThat(adjacency.neighbours(key)).containsExactly(key * 10);
+        }
+        int grown = adjacency.capacity();
+
+        // churn through many more ids than are ever live at once
+        for (long key = 1001; key <= 100_000; key++) {
+            adjacency.add(key, 1);
+            adjacency.removeKey(key - 1000);
+        }
+        assertThat(adjacency.keyCount()).isEqualTo(1000);
+        assertThat(adjacency.edgeCount()).isEqualTo(1000);
+        assertThat(adjacency.capacity()).isEqualTo(grown);
+        List<Long> keys = new ArrayList<>();
+        adjacency.forEachKey(keys::add);
+        assertThat(keys).hasSize(1000).allMatch(key -> key > 99_000 && adjacency.contains(key, 1));
+    }
+
+    @Test
+    void trimKeepsContentsAndShrinksArrays() {
+        LongAdjacency adjacency = new LongAdjacency();
+        for (long value = 1; value <= 10; value++) {
+            adjacency.add(1, value);
+        }
+        adjacency.remove(1, 5);
+        adjacency.add(2, 1);
+        adjacency.remove(2, 1);
+        long before = adjacency.estimatedBytes();
+
+        adjacency.trim();
+
+        assertThat(adjacency.estimatedBytes()).isLessThan(before);
+        assertThat(adjacency.neighbours(1)).containsExactly(1, 2, 3, 4, 6, 7, 8, 9, 10);
+        assertThat(adjacency.neighbours(2)).isEmpty();
+        adjacency.add(1, 5);
+        assertThat(adjacency.degree(1)).isEqualTo(10);
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.NameChange;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.repository.NameChangeRepository;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Rename propagation on H2 in MySQL mode with the Flyway schema. Trainer 1 (Ada) has three
+ * assignments; the propagator reads trainers through a repository that can rename trainer 1
+ * right after a run has looked up its name.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:names;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// renames commit in their own transactions, as they do behind the controllers
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NameChangePropagatorTest {
+
+    @Autowired
+    private NameChangeRepository nameChangeRepository;
+
+    @Autowired
+    private TrainerSubjectRepository trainerSubjectRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbc;
+    // runs once, right after the next lookup of trainer 1
+    private Runnable afterLookup;
+    private NameChangePropagator propagator;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void seed() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM name_change_outbox");
+        jdbc.update("DELETE FROM trainer_subject");
+        jdbc.update("DELETE FROM subject");
+        jdbc.update("DELETE FROM trainer");
+        jdbc.update("INSERT INTO trainer (emp_id, name, email, experience) VALUES (1, 'Ada', 'ada@example.com', 5)");
+        jdbc.update("INSERT INTO subject (subject_id, subject_name) VALUES (10, 'Java'), (20, 'SQL'), (30, 'Spring')");
+        jdbc.update("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES "
+                + "(1, 10, 'Ada', 'Java'), (1, 20, 'Ada', 'SQL'), (1, 30, 'Ada', 'Spring')");
+
+        TrainerRepository trainers = mock(TrainerRepository.class, delegatesTo(trainerRepository));
+        doAnswer(call -> {
+            Optional<Trainer> trainer = trainerRepository.findById(1L);
+            if (afterLookup != null) {
+                Runnable change = afterLookup;
+                afterLookup = null;
+                change.run();
+            }
+            return trainer;
+        }).when(trainers).findById(1L);
+        // batches of 2, so the three copies take two UPDATEs
+        propagator = new NameChangePropagator(nameChangeRepository, trainerSubjectRepository, trainers, subjectRepository, 2, 100);
+        propagator.bindTo(registry);
+    }
+
+    @Test
+    void gaugesAreCountedOnTheFirstRun() {
+        assertThat(gauge("trainerapp.names.propagation.pending")).isNaN();
+
+        propagator.propagate();
+
+        assertThat(gauge("trainerapp.names.propagation.pending")).isZero();
+        assertThat(gauge("trainerapp.names.propagation.lag")).isZero();
+    }
+
+    @Test
+    void aRenameDuringTheRunIsLeftForTheNext() {
+        rename("Ada L.");
+        afterLookup = () -> rename("Ada Lovelace");
+
+        propagator.propagate();
+
+        // the run wrote the name it read; the rename that committed after stays pending
+        assertThat(copies()).containsOnly("Ada L.");
+        assertThat(jdbc.queryForList("SELECT new_name FROM name_change_outbox", String.class)).containsExactly("Ada Lovelace");
+        assertThat(gauge("trainerapp.names.propagation.pending")).isEqualTo(1.0);
+        assertThat(registry.get("trainerapp.names.propagation.rows").functionCounter().count()).isEqualTo(3.0);
+
+        propagator.propagate();
+
+        assertThat(copies()).containsOnly("Ada Lovelace");
+        assertThat(nameChangeRepository.count()).isZero();
+        assertThat(gauge("trainerapp.names.propagation.pending")).isZero();
+        assertThat(gauge("trainerapp.names.propagation.lag")).isZero();
+        assertThat(registry.get("trainerapp.names.propagation.rows").functionCounter().count()).isEqualTo(6.0);
+    }
+
+    private void rename(String name) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbc.update("UPDATE trainer SET name = ? WHERE emp_id = 1", name);
+            propagator.record(NameChange.TRAINER, 1L, name);
+        });
+    }
+
+    private List<String> copies() {
+        return jdbc.queryForList("SELECT trainer_name FROM trainer_subject WHERE emp_id = 1", String.class);
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.CursorPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorsTest {
+
+    private final PageCursors cursors = new PageCursors(50, 500, true);
+
+    @Test
+    void cursorsRoundTripTheLastId() {
+        assertThat(decoded(cursors.encode(42))).isEqualTo("k1:42");
+        assertThat(cursors.after(cursors.encode(42))).isEqualTo(42);
+        assertThat(cursors.after(cursors.encode(Long.MAX_VALUE))).isEqualTo(Long.MAX_VALUE);
+        // no cursor is the first page
+        assertThat(cursors.after(null)).isZero();
+        assertThat(cursors.after(" ")).isZero();
+    }
+
+    @Test
+    void malformedAndForeignCursorsAreABadRequest() {
+        for (String cursor : List.of("not base64!", "42", encoded("k2:42"), encoded("k1:"), encoded("k1:42x"), encoded("id:42"))) {
+            assertThatThrownBy(() -> cursors.after(cursor))
+                    .as(cursor)
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    @Test
+    void theExtraRowDecidesWhetherAnotherPageFollows() {
+        assertThat(cursors.fetchLimit(3).max()).isEqualTo(4);
+
+        CursorPage<Long> last = cursors.page(List.of(7L, 8L, 9L), 3, Function.identity());
+        assertThat(last.getItems()).containsExactly(7L, 8L, 9L);
+        assertThat(last.getNextCursor()).isNull();
+
+        CursorPage<Long> full = cursors.page(List.of(7L, 8L, 9L, 10L), 3, Function.identity());
+        assertThat(full.getItems()).containsExactly(7L, 8L, 9L);
+        assertThat(cursors.after(full.getNextCursor())).isEqualTo(9);
+        assertThat(full.getLimit()).isEqualTo(3);
+    }
+
+    @Test
+    void limitsAreClamped() {
+        assertThat(cursors.limit(null)).isEqualTo(50);
+        assertThat(cursors.limit(0)).isEqualTo(1);
+        assertThat(cursors.limit(10_000)).isEqualTo(500);
+    }
+
+    private static String encoded(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decoded(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
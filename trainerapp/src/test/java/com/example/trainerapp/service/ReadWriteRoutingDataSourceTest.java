@@ -0,0 +1,107 @@
+package com.example.trainerapp.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two in-memory H2 databases stand in for primary and replica; each answers "whoami" with its role.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    void databases() {
+        primary = database("primary");
+        replica = database("replica");
+    }
+
+    @AfterEach
+    void clearRouting() {
+        ReadRouting.clear();
+    }
+
+    @Test
+    void usesPrimaryUnlessTheRequestAllowsReplica() {
+        JdbcTemplate jdbc = new JdbcTemplate(routing(List.of(replica)));
+        assertThat(whoami(jdbc)).isEqualTo("primary");
+
+        ReadRouting.allowReplica(true);
+        assertThat(whoami(jdbc)).isEqualTo("replica");
+
+        ReadRouting.allowReplica(false);
+        assertThat(whoami(jdbc)).isEqualTo("primary");
+    }
+
+    @Test
+    void onPrimaryOverridesTheRequestForItsTask() {
+        JdbcTemplate jdbc = new JdbcTemplate(routing(List.of(replica)));
+        ReadRouting.allowReplica(true);
+
+        assertThat(ReadRouting.onPrimary(() -> whoami(jdbc))).isEqualTo("primary");
+        assertThat(whoami(jdbc)).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransactionsStayOnPrimary() {
+        DataSource routing = routing(List.of(replica));
+        JdbcTemplate jdbc = new JdbcTemplate(routing);
+        TransactionTemplate transactions = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        ReadRouting.allowReplica(true);
+
+        String readWrite = transactions.execute(status -> whoami(jdbc));
+        assertThat(readWrite).isEqualTo("primary");
+
+        transactions.setReadOnly(true);
+        String readOnly = transactions.execute(status -> whoami(jdbc));
+        assertThat(readOnly).isEqualTo("replica");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenNoReplicaIsAvailable() {
+        DriverManagerDataSource down = new DriverManagerDataSource("jdbc:h2:mem:down;IFEXISTS=TRUE", "sa", "");
+        ReplicaPool pool = new ReplicaPool(primary, List.of(down, replica), Duration.ofMinutes(1));
+        JdbcTemplate jdbc = new JdbcTemplate(ReadWriteRoutingDataSource.create(primary, pool));
+        ReplicaPool allDown = new ReplicaPool(primary, List.of(down), Duration.ofMinutes(1));
+        JdbcTemplate degraded = new JdbcTemplate(ReadWriteRoutingDataSource.create(primary, allDown));
+        ReadRouting.allowReplica(true);
+
+        // round-robin starts at the failing replica, which is then skipped
+        assertThat(whoami(jdbc)).isEqualTo("replica");
+        assertThat(whoami(jdbc)).isEqualTo("replica");
+        assertThat(pool.available()).isEqualTo(1);
+
+        assertThat(whoami(degraded)).isEqualTo("primary");
+        assertThat(whoami(degraded)).isEqualTo("primary");
+        assertThat(allDown.fallbacks()).isEqualTo(2);
+    }
+
+    private DataSource routing(List<DataSource> replicas) {
+        return ReadWriteRoutingDataSource.create(primary, new ReplicaPool(primary, replicas, Duration.ofSeconds(10)));
+    }
+
+    private static String whoami(JdbcTemplate jdbc) {
+        return jdbc.queryForObject("SELECT role FROM whoami", String.class);
+    }
+
+    private static DataSource database(String role) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + role + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (role VARCHAR(16))");
+        jdbc.update("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", role);
+        return dataSource;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.controller.SearchController;
+import com.example.trainerapp.entity.SearchHit;
+import com.example.trainerapp.entity.Subject;
+import com.example.trainerapp.entity.Topic;
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TopicRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Subjects Java, JavaScript and Jakarta EE, trainer Ada (ada@java.org) and topic Kotlin.
+ */
+class SearchIndexTest {
+
+    private TrainerRepository trainers;
+    private SubjectRepository subjects;
+    private TopicRepository topics;
+    private SearchIndex index;
+
+    @BeforeEach
+    void load() {
+        trainers = mock(TrainerRepository.class);
+        subjects = mock(SubjectRepository.class);
+        topics = mock(TopicRepository.class);
+        when(trainers.findAll()).thenReturn(List.of(trainer(4, "Ada Lovelace", "ada@java.org")));
+        when(subjects.findAll()).thenReturn(List.of(subject(1, "Java", "Core language"), subject(2, "JavaScript", null),
+                subject(3, "Jakarta EE", null)));
+        when(topics.findAll()).thenReturn(List.of(topic(5, "Kotlin")));
+        index = new SearchIndex(trainers, subjects, topics);
+        index.load();
+    }
+
+    @Test
+    void editDistanceCountsATranspositionAsOneEdit() {
+        assertThat(SearchIndex.editDistance("java", "java", 2)).isZero();
+        assertThat(SearchIndex.editDistance("jvaa", "java", 2)).isEqualTo(1);
+        assertThat(SearchIndex.editDistance("sprnig", "spring", 2)).isEqualTo(1);
+        assertThat(SearchIndex.editDistance("kitten", "sitting", 5)).isEqualTo(3);
+        // gives up once every alignment is past the bound
+        assertThat(SearchIndex.editDistance("aaaa", "bbbb", 1)).isEqualTo(2);
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsFuzzy() {
+        // java: exact in a name (2.0) and an email (1.5), a prefix of javascript (0.62 x 2), jaka is one edit from java (0.35 x 2)
+        assertThat(titles(index.search("java", null, 10))).containsExactly("Java", "Ada Lovelace", "JavaScript", "Jakarta EE");
+        assertThat(titles(index.search("java", SearchIndex.SUBJECT, 10))).containsExactly("Java", "JavaScript", "Jakarta EE");
+        // the range scan stops at the prefix, and java is too short to be a typo of javascr
+        assertThat(titles(index.search("javascr", null, 10))).containsExactly("JavaScript");
+        assertThat(index.search("kot", null, 10)).singleElement()
+                .satisfies(hit -> assertThat(hit.getType()).isEqualTo(SearchIndex.TOPIC));
+    }
+
+    @Test
+    void typosMatchFuzzilyAndEveryTermMustMatch() {
+        // jvaa is java with two letters swapped; javascript only matches on its first four letters
+        assertThat(titles(index.search("jvaa", null, 10))).containsExactly("Java", "JavaScript", "Ada Lovelace");
+        assertThat(titles(index.search("ada jvaa", null, 10))).containsExactly("Ada Lovelace");
+        assertThat(index.search("ada kotlin", null, 10)).isEmpty();
+        // too short for typo tolerance
+        assertThat(index.search("jv", null, 10)).isEmpty();
+    }
+
+    @Test
+    void tiesAreOrderedByTitleAndLimitsApply() {
+        index.index(subject(6, "beta Testing", null));
+        index.index(subject(7, "Alpha Testing", null));
+        assertThat(titles(index.search("testing", null, 10))).containsExactly("Alpha Testing", "beta Testing");
+        assertThat(titles(index.search("testing", null, 1))).containsExactly("Alpha Testing");
+        assertThat(index.search("testing", null, 0)).isEmpty();
+
+        for (long id = 100; id < 250; id++) {
+            index.index(topic(id, "Topic " + id));
+        }
+        assertThat(new SearchController(index).search("topic", null, 500)).hasSize(100);
+    }
+
+    @Test
+    void writesDuringTheLoadWinOverTheRowsItRead() {
+        // the trainers are read first; by the time subjects and topics are read the writes are done, but the rows are older
+        when(trainers.findAll()).thenAnswer(call -> {
+            index.index(subject(1, "Java 21", "Core language"));
+            index.remove(SearchIndex.TOPIC, 5L);
+            return List.of(trainer(4, "Ada Lovelace", "ada@java.org"));
+        });
+        index = new SearchIndex(trainers, subjects, topics);
+        index.load();
+
+        assertThat(titles(index.search("21", null, 10))).containsExactly("Java 21");
+        assertThat(index.search("kotlin", null, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(4);
+
+        // once loaded, writes replace documents as usual
+        index.index(topic(5, "Kotlin"));
+        assertThat(index.search("kotlin", null, 10)).hasSize(1);
+    }
+
+    private static List<String> titles(List<SearchHit> hits) {
+        return hits.stream().map(SearchHit::getTitle).toList();
+    }
+
+    private static Trainer trainer(long empId, String name, String email) {
+        Trainer trainer = new Trainer();
+        trainer.setEmpId(empId);
+        trainer.setName(name);
+        trainer.setEmail(email);
+        return trainer;
+    }
+
+    private static Subject subject(long id, String name, String description) {
+        Subject subject = new Subject();
+        subject.setSubjectId(id);
+        subject.setSubjectName(name);
+        subject.setDescription(description);
+        return subject;
+    }
+
+    private static Topic topic(long id, String name) {
+        Topic topic = new Topic();
+        topic.setTopicId(id);
+        topic.setTopicName(name);
+        return topic;
+    }
+}
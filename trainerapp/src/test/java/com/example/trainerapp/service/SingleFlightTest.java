@@ -0,0 +1,119 @@
+package com.example.trainerapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A first caller's load is held open on a latch while later callers arrive.
+ */
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final AtomicInteger loaderRuns = new AtomicInteger();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void metrics() {
+        singleFlight.bindTo(registry);
+    }
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        Future<String> first = callers.submit(() -> load(1, false));
+        started.await(5, TimeUnit.SECONDS);
+        Future<String> second = callers.submit(() -> load(1, false));
+        awaitJoined(1);
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("load 1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("load 1");
+        assertThat(loaderRuns).hasValue(1);
+    }
+
+    @Test
+    void callersAfterAFenceStartAFreshLoad() throws Exception {
+        Future<String> first = callers.submit(() -> load(1, false));
+        started.await(5, TimeUnit.SECONDS);
+        singleFlight.fence(1);
+
+        assertThat(load(1, false)).isEqualTo("load 2");
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("load 1");
+        assertThat(count("trainerapp.singleflight.joined")).isZero();
+    }
+
+    @Test
+    void fenceAllCoversEverySubject() throws Exception {
+        Future<String> first = callers.submit(() -> load(7, false));
+        started.await(5, TimeUnit.SECONDS);
+        singleFlight.fenceAll();
+
+        assertThat(load(7, false)).isEqualTo("load 2");
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void primaryPinnedCallersDoNotJoinReplicaLoads() throws Exception {
+        Future<String> replicaLoad = callers.submit(() -> load(1, true));
+        started.await(5, TimeUnit.SECONDS);
+
+        assertThat(load(1, false)).isEqualTo("load 2");
+        release.countDown();
+        replicaLoad.get(5, TimeUnit.SECONDS);
+        assertThat(count("trainerapp.singleflight.loads")).isEqualTo(2);
+    }
+
+    /**
+     * The first run blocks until released, later runs return at once
+     */
+    private String load(long subjectId, boolean replicaAllowed) {
+        ReadRouting.allowReplica(replicaAllowed);
+        try {
+            return singleFlight.load("test", subjectId, () -> {
+                int run = loaderRuns.incrementAndGet();
+                if (run == 1) {
+                    started.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return "load " + run;
+            });
+        } finally {
+            ReadRouting.clear();
+        }
+    }
+
+    private void awaitJoined(double expected) throws InterruptedException {
+        for (int i = 0; i < 500 && count("trainerapp.singleflight.joined") < expected; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    private double count(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+}
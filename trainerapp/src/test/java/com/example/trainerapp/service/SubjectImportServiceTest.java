@@ -0,0 +1,136 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.IdName;
+import com.example.trainerapp.entity.ImportError;
+import com.example.trainerapp.entity.ImportReport;
+import com.example.trainerapp.repository.TopicRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Imports into H2 in MySQL mode with the Flyway schema; the topic lookups of TopicRepository are
+ * answered from the same database.
+ */
+class SubjectImportServiceTest {
+
+    private JdbcTemplate jdbc;
+    private SubjectImportService service;
+
+    @BeforeEach
+    void database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        NamedParameterJdbcTemplate named = new NamedParameterJdbcTemplate(jdbc);
+
+        TopicRepository topics = mock(TopicRepository.class);
+        when(topics.findExistingIds(anyCollection())).thenAnswer(call -> named.queryForList(
+                "SELECT topic_id FROM topic WHERE topic_id IN (:ids)", Map.of("ids", call.getArgument(0)), Long.class));
+        when(topics.findIdsByTopicNameIn(anyCollection())).thenAnswer(call -> named.query(
+                "SELECT topic_id, topic_name FROM topic WHERE topic_name IN (:names)", Map.of("names", call.<Collection<String>>getArgument(0)),
+                (rs, i) -> idName(rs.getLong(1), rs.getString(2))));
+
+        service = new SubjectImportService(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)), topics,
+                JsonMapper.builder().build(), mock(SearchIndex.class), new CatalogVersions(Duration.ZERO), mock(TrainerTopicMatrix.class),
+                new SingleFlight());
+    }
+
+    @Test
+    void csvReaderHandlesQuotesCrlfAndEmbeddedNewlines() {
+        SubjectImportService.CsvReader csv = new SubjectImportService.CsvReader(new StringReader(
+                "subjectName,description\r\n\"Java, advanced\",\"says \"\"hi\"\"\"\r\nSQL,\"two\nlines\"\nlast,"));
+
+        assertThat(csv.next()).containsExactly("subjectName", "description");
+        assertThat(csv.next()).containsExactly("Java, advanced", "says \"hi\"");
+        assertThat(csv.next()).containsExactly("SQL", "two\nlines");
+        assertThat(csv.next()).containsExactly("last", "");
+        assertThat(csv.next()).isNull();
+    }
+
+    @Test
+    void topicsAreCreatedOnceAcrossChunks() {
+        jdbc.update("INSERT INTO topic (topic_name) VALUES ('Existing')");
+        int subjects = SubjectImportService.IMPORT_CHUNK_SIZE + 100;
+        StringBuilder csv = new StringBuilder("subjectName,topics\n");
+        for (int i = 0; i < subjects; i++) {
+            csv.append("Subject ").append(i).append(",Java; Spring ;Existing;Java\n");
+        }
+
+        ImportReport report = service.importCsv(stream(csv.toString()));
+
+        assertThat(report.getErrorCount()).isZero();
+        assertThat(report.getSubjectsCreated()).isEqualTo(subjects);
+        assertThat(report.getTopicsCreated()).isEqualTo(2);
+        assertThat(report.getLinksCreated()).isEqualTo(3L * subjects);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM topic", Long.class)).isEqualTo(3L);
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM subject_topic", Long.class)).isEqualTo(3L * subjects);
+    }
+
+    @Test
+    void onlyTheRowsTheDatabaseRejectsAreLost() {
+        // stands in for any row-level failure that validation cannot foresee
+        jdbc.execute("ALTER TABLE subject ADD CONSTRAINT no_broken CHECK (subject_name <> 'Broken')");
+        String csv = "subjectName,description,topics\n"
+                + "First,,Java\n"
+                + "Broken,,Java\n"
+                + "Long," + "x".repeat(SubjectImportService.MAX_TEXT_LENGTH + 1) + ",Java\n"
+                + "Last,,Java\n";
+
+        ImportReport report = service.importCsv(stream(csv));
+
+        assertThat(report.getSubjectsCreated()).isEqualTo(2);
+        assertThat(report.getTopicsCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportError::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Not imported");
+        assertThat(report.getErrors().get(1).getMessage()).contains("limited to 255 characters");
+        assertThat(jdbc.queryForList("SELECT subject_name FROM subject ORDER BY subject_id", String.class))
+                .containsExactly("First", "Last");
+    }
+
+    @Test
+    void malformedCsvStopsTheImportAfterTheWrittenRows() {
+        ImportReport report = service.importCsv(stream("subjectName\nFirst\n\"unterminated\n"));
+
+        assertThat(report.getSubjectsCreated()).isEqualTo(1);
+        assertThat(report.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).startsWith("Malformed CSV"));
+    }
+
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static IdName idName(long id, String name) {
+        return new IdName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.BulkDeleteResult;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.SubjectTopicRepository;
+import com.example.trainerapp.repository.TopicRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk subject deletes on H2 in MySQL mode with the Flyway schema. Subjects 1 to 600 are all
+ * taught by trainer 1 and linked to topic 1; trainer 2 teaches the last 50.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:subjects;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the deletes run in their own transaction, as they do behind the controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SubjectServiceTest {
+
+    @Autowired
+    private SubjectRepository subjectRepository;
+
+    @Autowired
+    private TrainerSubjectRepository trainerSubjectRepository;
+
+    @Autowired
+    private TopicRepository topicRepository;
+
+    @Autowired
+    private SubjectTopicRepository subjectTopicRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM subject_topic");
+        jdbc.update("DELETE FROM trainer_subject");
+        jdbc.update("DELETE FROM topic");
+        jdbc.update("DELETE FROM subject");
+        jdbc.update("DELETE FROM trainer");
+        jdbc.update("INSERT INTO trainer (emp_id, name, email, experience) VALUES (1, 'Ada', 'ada@example.com', 5), (2, 'Bob', 'bob@example.com', 3)");
+        jdbc.update("INSERT INTO topic (topic_id, topic_name) VALUES (1, 'Basics')");
+        List<Object[]> subjects = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            subjects.add(new Object[]{id, "Subject " + id});
+            assignments.add(new Object[]{1L, id, "Ada", "Subject " + id});
+            if (id > 550) {
+                assignments.add(new Object[]{2L, id, "Bob", "Subject " + id});
+            }
+            links.add(new Object[]{id, 1L});
+        }
+        jdbc.batchUpdate("INSERT INTO subject (subject_id, subject_name) VALUES (?, ?)", subjects);
+        jdbc.batchUpdate("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (?, ?, ?, ?)", assignments);
+        jdbc.batchUpdate("INSERT INTO subject_topic (subject_id, topic_id) VALUES (?, ?)", links);
+    }
+
+    @Test
+    void deletesMoreIdsThanOneInListTakesWithoutLeavingAssignmentsBehind() {
+        AssignmentIndex assignmentIndex = new AssignmentIndex(jdbc);
+        assignmentIndex.load();
+        // subjects 1 to 550, 50 ids that do not exist and a repeat
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 550).boxed().toList());
+        ids.addAll(LongStream.rangeClosed(9001, 9050).boxed().toList());
+        ids.add(1L);
+
+        BulkDeleteResult result = service(assignmentIndex).deleteSubjects(ids);
+
+        assertThat(result).isEqualTo(new BulkDeleteResult(601, 550, 550, 550));
+        assertThat(jdbc.queryForList("SELECT subject_id FROM subject ORDER BY subject_id", Long.class))
+                .containsExactlyElementsOf(LongStream.rangeClosed(551, 600).boxed().toList());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM trainer_subject ts LEFT JOIN subject s ON s.subject_id = ts.subject_id "
+                + "WHERE s.subject_id IS NULL", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM subject_topic st LEFT JOIN subject s ON s.subject_id = st.subject_id "
+                + "WHERE s.subject_id IS NULL", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM trainer_subject", Long.class)).isEqualTo(100);
+        assertThat(assignmentIndex.trainerDegree(1)).isEqualTo(50);
+        assertThat(assignmentIndex.trainerDegree(2)).isEqualTo(50);
+        assertThat(assignmentIndex.subjectDegree(550)).isZero();
+        assertThat(assignmentIndex.size()).isEqualTo(100);
+    }
+
+    private SubjectService service(AssignmentIndex assignmentIndex) {
+        return new SubjectService(subjectRepository, trainerSubjectRepository, topicRepository, subjectTopicRepository,
+                mock(BatchLoader.class), mock(PageCursors.class), assignmentIndex, mock(EntityCache.class), mock(SearchIndex.class),
+                mock(CatalogVersions.class), new TransactionTemplate(transactionManager), 10_000, mock(NameChangePropagator.class),
+                mock(TrainerTopicMatrix.class), new SingleFlight());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.BulkDeleteResult;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Bulk trainer deletes on H2 in MySQL mode with the Flyway schema. Trainers 1 to 600 all teach
+ * subject 10; the last 50 also teach subject 20.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:trainers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// the deletes run in their own transaction, as they do behind the controller
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrainerServiceTest {
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TrainerSubjectRepository trainerSubjectRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void seed() {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("DELETE FROM trainer_subject");
+        jdbc.update("DELETE FROM subject");
+        jdbc.update("DELETE FROM trainer");
+        jdbc.update("INSERT INTO subject (subject_id, subject_name) VALUES (10, 'Java'), (20, 'SQL')");
+        List<Object[]> trainers = new ArrayList<>();
+        List<Object[]> assignments = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            trainers.add(new Object[]{id, "Trainer " + id, "trainer" + id + "@example.com"});
+            assignments.add(new Object[]{id, 10L, "Trainer " + id, "Java"});
+            if (id > 550) {
+                assignments.add(new Object[]{id, 20L, "Trainer " + id, "SQL"});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO trainer (emp_id, name, email, experience) VALUES (?, ?, ?, 1)", trainers);
+        jdbc.batchUpdate("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (?, ?, ?, ?)", assignments);
+    }
+
+    @Test
+    void deletesMoreIdsThanOneInListTakesWithoutLeavingAssignmentsBehind() {
+        AssignmentIndex assignmentIndex = new AssignmentIndex(jdbc);
+        assignmentIndex.load();
+        // trainers 1 to 550, 50 ids that do not exist and a repeat
+        List<Long> ids = new ArrayList<>(LongStream.rangeClosed(1, 550).boxed().toList());
+        ids.addAll(LongStream.rangeClosed(9001, 9050).boxed().toList());
+        ids.add(1L);
+
+        BulkDeleteResult result = service(assignmentIndex).deleteTrainers(ids);
+
+        assertThat(result).isEqualTo(new BulkDeleteResult(601, 550, 550, 0));
+        assertThat(jdbc.queryForList("SELECT emp_id FROM trainer ORDER BY emp_id", Long.class))
+                .containsExactlyElementsOf(LongStream.rangeClosed(551, 600).boxed().toList());
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM trainer_subject ts LEFT JOIN trainer t ON t.emp_id = ts.emp_id "
+                + "WHERE t.emp_id IS NULL", Long.class)).isZero();
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM trainer_subject", Long.class)).isEqualTo(100);
+        assertThat(assignmentIndex.subjectDegree(10)).isEqualTo(50);
+        assertThat(assignmentIndex.subjectDegree(20)).isEqualTo(50);
+        assertThat(assignmentIndex.trainerDegree(550)).isZero();
+        assertThat(assignmentIndex.size()).isEqualTo(100);
+    }
+
+    private TrainerService service(AssignmentIndex assignmentIndex) {
+        return new TrainerService(trainerRepository, trainerSubjectRepository, mock(BatchLoader.class), mock(PageCursors.class),
+                mock(EntityCache.class), mock(SearchIndex.class), assignmentIndex, new TransactionTemplate(transactionManager), 10_000,
+                mock(NameChangePropagator.class), mock(TrainerTopicMatrix.class), new SingleFlight());
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.AssignmentKey;
+import com.example.trainerapp.entity.BulkAssignResult;
+import com.example.trainerapp.entity.BulkAssignResult.Status;
+import com.example.trainerapp.entity.IdName;
+import com.example.trainerapp.entity.TrainerSubject;
+import com.example.trainerapp.repository.SubjectRepository;
+import com.example.trainerapp.repository.TrainerRepository;
+import com.example.trainerapp.repository.TrainerSubjectRepository;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk assignment into H2 in MySQL mode with the Flyway schema. The repository lookups are
+ * answered from the same database, except where a test makes them stale to stand in for a write
+ * that commits between the checks and the insert.
+ */
+class TrainerSubjectServiceTest {
+
+    private JdbcTemplate jdbc;
+    private NamedParameterJdbcTemplate named;
+    private TrainerRepository trainers;
+    private SubjectRepository subjects;
+    private TrainerSubjectRepository assignments;
+    private AssignmentIndex assignmentIndex;
+    private TrainerSubjectService service;
+
+    @BeforeEach
+    void database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        named = new NamedParameterJdbcTemplate(jdbc);
+        jdbc.update("INSERT INTO trainer (emp_id, name, email, experience) VALUES (1, 'Ada', 'ada@example.com', 5), (2, 'Bob', 'bob@example.com', 3)");
+        jdbc.update("INSERT INTO subject (subject_id, subject_name) VALUES (10, 'Java'), (20, 'SQL')");
+
+        trainers = mock(TrainerRepository.class);
+        when(trainers.findNamesByEmpIdIn(anyCollection())).thenAnswer(call -> names("trainer", "emp_id", "name", call.getArgument(0)));
+        when(trainers.existsById(any())).thenAnswer(call -> count("trainer", "emp_id", call.getArgument(0)) > 0);
+        subjects = mock(SubjectRepository.class);
+        when(subjects.findNamesBySubjectIdIn(anyCollection())).thenAnswer(call -> names("subject", "subject_id", "subject_name", call.getArgument(0)));
+        assignments = mock(TrainerSubjectRepository.class);
+        when(assignments.findKeysByEmpIdInAndSubjectIdIn(anyCollection(), anyCollection())).thenAnswer(call -> named.query(
+                "SELECT emp_id, subject_id FROM trainer_subject WHERE emp_id IN (:emps) AND subject_id IN (:subjects)",
+                Map.of("emps", call.getArgument(0), "subjects", call.getArgument(1)),
+                (rs, i) -> key(rs.getLong(1), rs.getLong(2))));
+
+        assignmentIndex = new AssignmentIndex(jdbc);
+        assignmentIndex.load();
+        service = new TrainerSubjectService();
+        ReflectionTestUtils.setField(service, "trainerRepository", trainers);
+        ReflectionTestUtils.setField(service, "subjectRepository", subjects);
+        ReflectionTestUtils.setField(service, "trainerSubjectRepository", assignments);
+        ReflectionTestUtils.setField(service, "assignmentIndex", assignmentIndex);
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(new DataSourceTransactionManager(dataSource)));
+        ReflectionTestUtils.setField(service, "singleFlight", new SingleFlight());
+        ReflectionTestUtils.setField(service, "bulkMaxItems", 10_000);
+    }
+
+    @Test
+    void checksEveryPairBeforeInserting() throws Exception {
+        jdbc.update("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (2, 10, 'Bob', 'Java')");
+
+        List<BulkAssignResult> results = service.bulkAssign(Arrays.asList(
+                pair(1L, 10L), pair(2L, 10L), pair(1L, 10L), pair(3L, 10L), pair(1L, 30L), pair(1L, null), pair(2L, 20L)));
+
+        assertThat(results).extracting(BulkAssignResult::getStatus).containsExactly(
+                Status.CREATED, Status.DUPLICATE, Status.DUPLICATE, Status.UNKNOWN_TRAINER, Status.UNKNOWN_SUBJECT,
+                Status.INVALID, Status.CREATED);
+        assertThat(rows()).containsExactly("1:10:Ada:Java", "2:10:Bob:Java", "2:20:Bob:SQL");
+    }
+
+    @Test
+    void aBatchTheDatabaseRejectsIsRolledBackAndRetriedRowByRow() throws Exception {
+        // assigned and deleted after the checks: the checks see neither, the insert fails on both
+        doReturn(List.of()).when(assignments).findKeysByEmpIdInAndSubjectIdIn(anyCollection(), anyCollection());
+        doAnswer(call -> {
+            List<IdName> names = new ArrayList<>(names("subject", "subject_id", "subject_name", call.getArgument(0)));
+            names.add(idName(30L, "Deleted"));
+            return names;
+        }).when(subjects).findNamesBySubjectIdIn(anyCollection());
+        jdbc.update("INSERT INTO trainer_subject (emp_id, subject_id, trainer_name, subject_name) VALUES (2, 10, 'Bob', 'Java')");
+
+        List<BulkAssignResult> results = service.bulkAssign(List.of(pair(1L, 10L), pair(2L, 10L), pair(1L, 30L), pair(2L, 20L)));
+
+        assertThat(results).extracting(BulkAssignResult::getStatus).containsExactly(
+                Status.CREATED, Status.DUPLICATE, Status.UNKNOWN_SUBJECT, Status.CREATED);
+        // nothing of the failed batch survives next to the rows inserted one by one
+        assertThat(rows()).containsExactly("1:10:Ada:Java", "2:10:Bob:Java", "2:20:Bob:SQL");
+        assertThat(assignmentIndex.subjectsOf(1)).containsExactly(10);
+        assertThat(assignmentIndex.subjectsOf(2)).containsExactly(10, 20);
+    }
+
+    private List<String> rows() {
+        return jdbc.query("SELECT emp_id, subject_id, trainer_name, subject_name FROM trainer_subject ORDER BY emp_id, subject_id",
+                (rs, i) -> rs.getLong(1) + ":" + rs.getLong(2) + ":" + rs.getString(3) + ":" + rs.getString(4));
+    }
+
+    private List<IdName> names(String table, String idColumn, String nameColumn, Collection<Long> ids) {
+        return named.query("SELECT " + idColumn + ", " + nameColumn + " FROM " + table + " WHERE " + idColumn + " IN (:ids)",
+                Map.of("ids", ids), (rs, i) -> idName(rs.getLong(1), rs.getString(2)));
+    }
+
+    private long count(String table, String idColumn, Long id) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE " + idColumn + " = ?", Long.class, id);
+    }
+
+    private static TrainerSubject pair(Long empId, Long subjectId) {
+        TrainerSubject pair = new TrainerSubject();
+        pair.setEmpId(empId);
+        pair.setSubjectId(subjectId);
+        return pair;
+    }
+
+    private static AssignmentKey key(long empId, long subjectId) {
+        return new AssignmentKey() {
+            @Override
+            public Long getEmpId() {
+                return empId;
+            }
+
+            @Override
+            public Long getSubjectId() {
+                return subjectId;
+            }
+        };
+    }
+
+    private static IdName idName(long id, String name) {
+        return new IdName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
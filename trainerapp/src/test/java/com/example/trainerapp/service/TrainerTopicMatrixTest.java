@@ -0,0 +1,107 @@
+package com.example.trainerapp.service;
+
+import com.example.trainerapp.entity.Trainer;
+import com.example.trainerapp.entity.TrainerMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Trainers 1 and 2 teach subject 10 (topics 100, 101); trainer 2 also teaches subject 20 (topic 200).
+ */
+class TrainerTopicMatrixTest {
+
+    private JdbcTemplate jdbc;
+    // runs once, in the middle of the next matrix load
+    private Runnable duringLoad;
+    private AssignmentIndex assignmentIndex;
+    private TrainerTopicMatrix matrix;
+
+    @BeforeEach
+    void database() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:matrix" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "")) {
+            @Override
+            public void query(String sql, RowCallbackHandler handler) {
+                if (sql.contains("FROM trainer") && duringLoad != null) {
+                    Runnable change = duringLoad;
+                    duringLoad = null;
+                    change.run();
+                }
+                super.query(sql, handler);
+            }
+        };
+        jdbc.execute("CREATE TABLE subject_topic (subject_id BIGINT, topic_id BIGINT)");
+        jdbc.execute("CREATE TABLE trainer (emp_id BIGINT, name VARCHAR(255), experience INT, format VARCHAR(255))");
+        jdbc.execute("CREATE TABLE trainer_subject (emp_id BIGINT, subject_id BIGINT)");
+        jdbc.update("INSERT INTO subject_topic VALUES (10, 100), (10, 101), (20, 200)");
+        jdbc.update("INSERT INTO trainer VALUES (1, 'Ada', 5, 'online'), (2, 'Bob', 3, 'classroom')");
+        jdbc.update("INSERT INTO trainer_subject VALUES (1, 10), (2, 10), (2, 20)");
+
+        assignmentIndex = new AssignmentIndex(jdbc);
+        assignmentIndex.load();
+        matrix = new TrainerTopicMatrix(jdbc, assignmentIndex);
+    }
+
+    @Test
+    void ranksByCoverageThenExperience() {
+        matrix.load();
+
+        List<TrainerMatch> matches = matrix.match(List.of(100L, 200L), null, null, 10);
+        assertThat(matches).extracting(TrainerMatch::getEmpId).containsExactly(2L, 1L);
+        assertThat(matches.get(0).getMatchedTopicIds()).containsExactlyInAnyOrder(100L, 200L);
+        assertThat(matrix.match(List.of(100L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(1L, 2L);
+        assertThat(matrix.match(List.of(100L), 4, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(1L);
+        assertThat(matrix.match(List.of(100L), null, "CLASSROOM", 10)).extracting(TrainerMatch::getEmpId).containsExactly(2L);
+    }
+
+    @Test
+    void followsWritesAfterTheLoad() {
+        matrix.load();
+
+        matrix.topicsLinked(20, List.of(300L));
+        assertThat(matrix.match(List.of(300L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(2L);
+
+        // the assignment index reports the trainer, the matrix recomputes its row
+        assignmentIndex.add(1, 20);
+        assertThat(matrix.match(List.of(300L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(1L, 2L);
+
+        matrix.topicUnlinked(20, 300L);
+        assertThat(matrix.match(List.of(300L), null, null, 10)).isEmpty();
+
+        matrix.trainerSaved(trainer(3, "Cy", 9));
+        assignmentIndex.add(3, 10);
+        assertThat(matrix.match(List.of(101L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(3L, 1L, 2L);
+
+        matrix.trainerRemoved(3);
+        matrix.subjectRemoved(10);
+        assertThat(matrix.match(List.of(100L, 101L), null, null, 10)).isEmpty();
+    }
+
+    @Test
+    void writesDuringTheLoadAreReplayed() {
+        // neither write is in the rows the load reads; without the replay the loaded matrix would miss both
+        duringLoad = () -> {
+            matrix.topicsLinked(10, List.of(400L));
+            matrix.trainerSaved(trainer(3, "Cy", 9));
+            assignmentIndex.add(3, 20);
+        };
+        matrix.load();
+
+        assertThat(matrix.match(List.of(400L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(1L, 2L);
+        assertThat(matrix.match(List.of(200L), null, null, 10)).extracting(TrainerMatch::getEmpId).containsExactly(3L, 2L);
+    }
+
+    private static Trainer trainer(long empId, String name, int experience) {
+        Trainer trainer = new Trainer();
+        trainer.setEmpId(empId);
+        trainer.setName(name);
+        trainer.setExperience(experience);
+        return trainer;
+    }
+}
@@ -0,0 +1,174 @@
+-- The SQL of every repository query, with sample parameters, for checking query plans.
+-- QueryPlanTest runs EXPLAIN on each one against H2 before (V1) and after the index and
+-- constraint migrations and fails if a table is scanned that is not listed under "scan:".
+-- With -Dqueryplans.mysql.url it runs them on MySQL too, where an access type of ALL or index
+-- on a table not listed under "scan:" is a full scan.
+--
+-- Format: a "-- Repository.method" line, optional "-- scan: table ..." lines naming tables the
+-- query reads in full by design, then the statement ending in a semicolon.
+
+-- SubjectRepository.findById
+SELECT * FROM subject WHERE subject_id = 7;
+
+-- SubjectRepository.findBySubjectIdGreaterThanOrderBySubjectIdAsc
+SELECT * FROM subject WHERE subject_id > 7 ORDER BY subject_id LIMIT 51;
+
+-- SubjectRepository.findByIdForUpdate
+SELECT * FROM subject WHERE subject_id = 7 FOR UPDATE;
+
+-- SubjectRepository.findNamesBySubjectIdIn
+SELECT subject_id, subject_name FROM subject WHERE subject_id IN (3, 5, 7);
+
+-- SubjectRepository.streamAfter
+SELECT * FROM subject WHERE subject_id > 7 ORDER BY subject_id;
+
+-- SubjectRepository.deleteBySubjectIdIn
+DELETE FROM subject WHERE subject_id IN (3, 5, 7);
+
+-- SubjectTopicRepository.findBySubjectId
+SELECT * FROM subject_topic WHERE subject_id = 7;
+
+-- SubjectTopicRepository.findBySubjectIdAndTopicId
+SELECT * FROM subject_topic WHERE subject_id = 7 AND topic_id = 11;
+
+-- SubjectTopicRepository.findTopicIdsBySubjectId
+SELECT topic_id FROM subject_topic WHERE subject_id = 7 ORDER BY id;
+
+-- SubjectTopicRepository.findTopicIdsTaughtBy
+SELECT DISTINCT st.topic_id FROM subject_topic st JOIN trainer_subject ts ON ts.subject_id = st.subject_id
+WHERE ts.emp_id = 7 ORDER BY st.topic_id;
+
+-- SubjectTopicRepository.deleteBySubjectIdIn
+DELETE FROM subject_topic WHERE subject_id IN (3, 5, 7);
+
+-- TopicRepository.findById
+SELECT * FROM topic WHERE topic_id = 11;
+
+-- TopicRepository.findByTopicIdGreaterThanOrderByTopicIdAsc
+SELECT * FROM topic WHERE topic_id > 11 ORDER BY topic_id LIMIT 51;
+
+-- TopicRepository.findIdsByTopicNameIn
+SELECT topic_id, topic_name FROM topic WHERE topic_name IN ('topic-11', 'topic-12') ORDER BY topic_id;
+
+-- TopicRepository.findExistingIds
+SELECT topic_id FROM topic WHERE topic_id IN (11, 12, 13);
+
+-- TrainerRepository.findById
+SELECT * FROM trainer WHERE emp_id = 7;
+
+-- TrainerRepository.findTrainersBySubjectName
+SELECT t.* FROM trainer t JOIN trainer_subject ts ON t.emp_id = ts.emp_id JOIN subject s ON ts.subject_id = s.subject_id
+WHERE s.subject_name = 'subject-7';
+
+-- TrainerRepository.findByEmpIdGreaterThanOrderByEmpIdAsc
+SELECT * FROM trainer WHERE emp_id > 7 ORDER BY emp_id LIMIT 51;
+
+-- TrainerRepository.deleteByEmpIdIn
+DELETE FROM trainer WHERE emp_id IN (3, 5, 7);
+
+-- TrainerRepository.findByIdForUpdate
+SELECT * FROM trainer WHERE emp_id = 7 FOR UPDATE;
+
+-- TrainerRepository.findNamesByEmpIdIn
+SELECT emp_id, name FROM trainer WHERE emp_id IN (3, 5, 7);
+
+-- TrainerRepository.streamAfter
+SELECT * FROM trainer WHERE emp_id > 7 ORDER BY emp_id;
+
+-- TrainerSubjectRepository.findById
+SELECT * FROM trainer_subject WHERE id = 7;
+
+-- TrainerSubjectRepository.findByIdGreaterThanOrderByIdAsc
+SELECT * FROM trainer_subject WHERE id > 7 ORDER BY id LIMIT 51;
+
+-- TrainerSubjectRepository.streamAfter
+SELECT * FROM trainer_subject WHERE id > 7 ORDER BY id;
+
+-- TrainerSubjectRepository.findByEmpId
+SELECT * FROM trainer_subject WHERE emp_id = 7;
+
+-- TrainerSubjectRepository.findBySubjectId
+SELECT * FROM trainer_subject WHERE subject_id = 7;
+
+-- TrainerSubjectRepository.findEmpIdsBySubjectId
+SELECT emp_id FROM trainer_subject WHERE subject_id = 7 ORDER BY id;
+
+-- TrainerSubjectRepository.findSubjectIdsByEmpId
+SELECT subject_id FROM trainer_subject WHERE emp_id = 7 ORDER BY id;
+
+-- TrainerSubjectRepository.findByEmpIdAndSubjectId
+SELECT * FROM trainer_subject WHERE emp_id = 7 AND subject_id = 8 LIMIT 1;
+
+-- TrainerSubjectRepository.findKeysOfTrainersTeaching
+SELECT other.emp_id, other.subject_id FROM trainer_subject ts JOIN trainer_subject other ON other.emp_id = ts.emp_id
+WHERE ts.subject_id = 7 ORDER BY other.emp_id, other.id;
+
+-- TrainerSubjectRepository.findKeysByEmpIdInAndSubjectIdIn
+SELECT emp_id, subject_id FROM trainer_subject WHERE emp_id IN (3, 5, 7) AND subject_id IN (4, 6, 8);
+
+-- TrainerSubjectRepository.deleteByEmpIdAndSubjectId
+DELETE FROM trainer_subject WHERE emp_id = 7 AND subject_id = 8;
+
+-- TrainerSubjectRepository.existsByEmpIdAndSubjectId
+SELECT id FROM trainer_subject WHERE emp_id = 7 AND subject_id = 8 LIMIT 1;
+
+-- TrainerSubjectRepository.countByEmpId
+SELECT COUNT(id) FROM trainer_subject WHERE emp_id = 7;
+
+-- TrainerSubjectRepository.countBySubjectId
+SELECT COUNT(id) FROM trainer_subject WHERE subject_id = 7;
+
+-- TrainerSubjectRepository.countAssignmentsPerTrainer
+-- scan: trainer
+SELECT t.emp_id, t.name, COUNT(ts.id) FROM trainer t LEFT JOIN trainer_subject ts ON ts.emp_id = t.emp_id
+GROUP BY t.emp_id, t.name ORDER BY t.emp_id;
+
+-- TrainerSubjectRepository.countAssignmentsPerSubject
+-- scan: subject
+SELECT s.subject_id, s.subject_name, COUNT(ts.id) FROM subject s LEFT JOIN trainer_subject ts ON ts.subject_id = s.subject_id
+GROUP BY s.subject_id, s.subject_name ORDER BY s.subject_id;
+
+-- TrainerSubjectRepository.countWorkloadPerTopic
+-- scan: topic
+SELECT tp.topic_id, tp.topic_name, COUNT(DISTINCT st.subject_id), COUNT(DISTINCT ts.emp_id) FROM topic tp
+LEFT JOIN subject_topic st ON st.topic_id = tp.topic_id LEFT JOIN trainer_subject ts ON ts.subject_id = st.subject_id
+GROUP BY tp.topic_id, tp.topic_name ORDER BY tp.topic_id;
+
+-- TrainerSubjectRepository.deleteBySubjectId
+DELETE FROM trainer_subject WHERE subject_id = 7;
+
+-- TrainerSubjectRepository.deleteBySubjectIdIn
+DELETE FROM trainer_subject WHERE subject_id IN (3, 5, 7);
+
+-- TrainerSubjectRepository.deleteByEmpIdIn
+DELETE FROM trainer_subject WHERE emp_id IN (3, 5, 7);
+
+-- TrainerSubjectRepository.reassign
+UPDATE trainer_subject SET subject_id = 9, subject_name = 'subject-9' WHERE emp_id = 7 AND subject_id = 8;
+
+-- TrainerSubjectRepository.deleteOverlapping
+DELETE FROM trainer_subject WHERE subject_id = 7 AND emp_id IN (
+    SELECT emp_id FROM (SELECT emp_id FROM trainer_subject WHERE subject_id = 8) AS target);
+
+-- TrainerSubjectRepository.moveSubject
+UPDATE trainer_subject SET subject_id = 8, subject_name = 'subject-8' WHERE subject_id = 7;
+
+-- TrainerSubjectRepository.renameTrainer
+UPDATE trainer_subject SET trainer_name = 'renamed' WHERE emp_id = 7 AND trainer_name <> 'renamed' LIMIT 1000;
+
+-- TrainerSubjectRepository.renameSubject
+UPDATE trainer_subject SET subject_name = 'renamed' WHERE subject_id = 7 AND subject_name <> 'renamed' LIMIT 1000;
+
+-- TrainerSubjectRepository.deleteDuplicates
+-- scan: trainer_subject
+DELETE FROM trainer_subject WHERE id NOT IN (SELECT MIN(id) FROM trainer_subject GROUP BY emp_id, subject_id);
+
+-- NameChangeRepository.findAllByOrderByIdAsc
+-- scan: name_change_outbox
+SELECT * FROM name_change_outbox ORDER BY id LIMIT 100;
+
+-- NameChangeRepository.findOldestCreatedAt
+SELECT MIN(created_at) FROM name_change_outbox;
+
+-- NameChangeRepository.deletePropagated
+DELETE FROM name_change_outbox WHERE id IN (38, 39, 40);